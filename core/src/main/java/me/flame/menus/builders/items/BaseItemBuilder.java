@@ -1,6 +1,8 @@
 package me.flame.menus.builders.items;
 
+import me.flame.menus.components.nbt.ItemNbt;
 import me.flame.menus.items.ClickSound;
+import me.flame.menus.items.ItemIds;
 import me.flame.menus.items.ItemResponse;
 import me.flame.menus.items.MenuItem;
 import org.bukkit.Material;
@@ -54,7 +56,15 @@ public abstract class BaseItemBuilder {
      * @return the new MenuItem
      */
     public MenuItem clickable(ItemResponse event) {
-        MenuItem item = MenuItem.of(build(), event, excludeNbt);
+        final MenuItem item;
+        if (excludeNbt || hasNoItemMeta) {
+            item = MenuItem.of(build(), event, excludeNbt);
+        } else {
+            // the id goes into the meta we already hold, so the stack's meta is only written once
+            final long id = ItemIds.next();
+            ItemNbt.setLong(meta, ItemIds.ID_KEY, id);
+            item = MenuItem.tagged(build(), event, id);
+        }
         item.setSound(sound);
         return item;
     }
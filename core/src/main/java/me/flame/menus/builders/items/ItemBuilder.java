@@ -209,7 +209,8 @@ public class ItemBuilder extends BaseItemBuilder {
      */
     public ItemBuilder setNbt(String key, String value) {
         if (this.hasNoItemMeta) return this;
-        ItemNbt.setString(item, key, value);
+        // on the meta, build() writes the meta over the item
+        ItemNbt.setString(meta, key, value);
         return this;
     }
 
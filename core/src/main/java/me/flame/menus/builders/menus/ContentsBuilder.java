@@ -1,11 +1,13 @@
 package me.flame.menus.builders.menus;
 
+import me.flame.menus.menu.CompiledLayout;
 import me.flame.menus.menu.MenuLayout;
 import me.flame.menus.menu.Slot;
 import me.flame.menus.patterns.IterationPattern;
 import me.flame.menus.items.MenuItem;
 import me.flame.menus.menu.contents.BukkitContents;
 import me.flame.menus.menu.contents.Contents;
+import me.flame.menus.menu.contents.MapContents;
 import me.flame.menus.menu.Menu;
 import me.flame.menus.menu.iterator.IterationDirection;
 import me.flame.menus.menu.iterator.MenuIterator;
@@ -25,7 +27,7 @@ public class ContentsBuilder {
     }
 
     public ContentsBuilder(final Menu menu, final boolean concurrent) {
-        this.contents = new Contents(menu, concurrent);
+        this.contents = concurrent ? new MapContents(menu, true) : new Contents(menu);
         this.menu = menu;
     }
 
@@ -58,7 +60,12 @@ public class ContentsBuilder {
     }
 
     public ContentsBuilder layout(MenuLayout layout) {
-        return this.iterate((contents, slot) -> contents.setItem(slot, layout.getMappedItem(slot.row(), slot.column())));
+        return this.layout(layout.compiled());
+    }
+
+    public ContentsBuilder layout(CompiledLayout layout) {
+        layout.apply(contents);
+        return this;
     }
 
     public BukkitContents create() {
@@ -2,6 +2,7 @@ package me.flame.menus.builders.menus;
 
 import me.flame.menus.menu.KeyedMenuImpl;
 import me.flame.menus.menu.Menu;
+import me.flame.menus.menu.MenuBlueprint;
 import me.flame.menus.menu.MenuImpl;
 
 import me.flame.menus.menu.Menus;
@@ -10,6 +11,8 @@ import org.bukkit.event.inventory.InventoryType;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Consumer;
+
 /**
  * Universal menu builder for menus (Menu, PaginatedMenu).
  * @since 2.0.0
@@ -32,6 +35,19 @@ public class MenuBuilder extends BaseMenuBuilder<MenuBuilder> {
         return type.inventoryType() == InventoryType.CHEST ? new MenuImpl(rows, title, modifiers, menus) : new MenuImpl(type, title, modifiers, menus);
     }
 
+    /**
+     * Builds a template menu, lets the consumer fill it and compiles it into a blueprint.
+     * @param setup fills the template with items and actions
+     * @return the blueprint
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public MenuBlueprint blueprint(@NotNull Consumer<Menu> setup) {
+        Menu template = normal();
+        setup.accept(template);
+        return MenuBlueprint.of(template);
+    }
+
     @NotNull
     @Contract("_ -> new")
     public Pagination<String> keyed(int pageCount) {
@@ -26,6 +26,11 @@ public final class MenuLayoutBuilder {
 
     private int rows;
 
+    /**
+     * The last compiled layout, dropped when an item is mapped.
+     */
+    private CompiledLayout compiled;
+
     public MenuLayoutBuilder(@NotNull Map<Character, MenuItem> mappedButtons) {
         this.mappedButtons = new Char2ObjectOpenHashMap<>(mappedButtons);
         this.patterns = null;
@@ -38,6 +43,7 @@ public final class MenuLayoutBuilder {
 
     public MenuLayoutBuilder set(char id, MenuItem mapped) {
         this.mappedButtons.put(id, mapped);
+        this.compiled = null;
         return this;
     }
 
@@ -63,6 +69,16 @@ public final class MenuLayoutBuilder {
         return new MenuLayout(patterns, rows, mappedButtons);
     }
 
+    /**
+     * Resolves the pattern into slots once, the layout can then be applied to any amount of menus.
+     * @return the compiled layout
+     */
+    public @NotNull CompiledLayout compile() {
+        this.validateData();
+        CompiledLayout current = this.compiled;
+        return current == null ? (this.compiled = CompiledLayout.compile(patterns, mappedButtons)) : current;
+    }
+
     /**
      * Creates a menu with the given title and populates it with items.
      *
@@ -94,21 +110,7 @@ public final class MenuLayoutBuilder {
      * @return        the created menu
      */
     public @NotNull Menu createMenu(Component title, Menus menus) {
-        this.validateData();
-        MenuImpl menu = new MenuImpl(rows, title, EnumSet.noneOf(Modifier.class), menus);
-        addItems(menu);
-        return menu;
-    }
-
-    private void addItems(@NotNull Menu menu) {
-        int size = menu.size();
-        for (int buttonIndex = 0; buttonIndex < size; buttonIndex++) {
-            int row = buttonIndex / 9;
-            int column = buttonIndex % 9;
-
-            MenuItem button = mappedButtons.get(patterns[row].charAt(column));
-            menu.setItem(buttonIndex, button);
-        }
+        return compile().createMenu(title, EnumSet.noneOf(Modifier.class), menus);
     }
 
     /**
@@ -118,23 +120,16 @@ public final class MenuLayoutBuilder {
      * @return        the created menu
      */
     public Menu createMenu(Component title, EnumSet<Modifier> modifiers, Menus menus) {
-        this.validateData();
-        MenuImpl menu = new MenuImpl(rows, title, modifiers, menus);
-        addItems(menu);
-        return menu;
+        return compile().createMenu(title, modifiers, menus);
     }
 
     public BukkitContents createContents(Menu menu) {
-        this.validateData();
-        return Contents.builder(menu)
-                .iterate((content, buttonIndex) -> content.setItem(buttonIndex, this.mappedButtons.get(patterns[buttonIndex.row()].charAt(buttonIndex.column()))))
-                .create();
+        return compile().createContents(menu);
     }
 
     public BukkitContents createConcurrentContents(Menu menu) {
-        this.validateData();
         return Contents.builder(menu, true)
-                .iterate((content, buttonIndex) -> content.setItem(buttonIndex, this.mappedButtons.get(patterns[buttonIndex.row()].charAt(buttonIndex.column()))))
+                .layout(compile())
                 .create();
     }
 
@@ -2,16 +2,22 @@ package me.flame.menus.builders.menus;
 
 import me.flame.menus.items.MenuItem;
 import me.flame.menus.menu.*;
+import me.flame.menus.menu.opener.MenuOpener;
 import me.flame.menus.menu.pagination.IndexedPagination;
+import me.flame.menus.menu.pagination.LazyPages;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Consumer;
+
 @SuppressWarnings("unused")
 public class PaginatedBuilder extends BaseMenuBuilder<PaginatedBuilder> {
     protected int pages = 2, nextItemSlot = -1, previousItemSlot = -1;
 
     private MenuItem nextItem, previousItem;
 
+    private LazyPages lazyPages;
+
     public PaginatedBuilder(Menus menus, int rows) {
         super(menus, rows);
     }
@@ -32,6 +38,18 @@ public class PaginatedBuilder extends BaseMenuBuilder<PaginatedBuilder> {
         return this;
     }
 
+    /**
+     * Builds the pages on demand instead of creating all of them up front, {@link #pages(int)} is ignored.
+     *
+     * @param  lazyPages  the page count and the factory building the pages
+     * @return            the builder for chaining
+     */
+    @NotNull
+    public PaginatedBuilder lazyPages(final LazyPages lazyPages) {
+        this.lazyPages = lazyPages;
+        return this;
+    }
+
     public PaginatedBuilder nextPageItem(int nextItemSlot, MenuItem nextItem) {
         this.nextItemSlot = nextItemSlot;
         this.nextItem = nextItem;
@@ -48,12 +66,31 @@ public class PaginatedBuilder extends BaseMenuBuilder<PaginatedBuilder> {
     @Contract(" -> new")
     public IndexedPagination build() {
         checkRequirements(rows, title);
+        if (lazyPages != null) {
+            checkPaginatedRequirements(1, nextItemSlot, previousItemSlot, nextItem, previousItem);
+            return type == MenuType.CHEST
+                    ? new PaginatedMenuImpl(rows, lazyPages, title, modifiers, nextItem, previousItem, nextItemSlot, previousItemSlot, MenuOpener.DEFAULT, menus)
+                    : new PaginatedMenuImpl(type, lazyPages, title, modifiers, nextItem, previousItem, nextItemSlot, previousItemSlot, MenuOpener.DEFAULT, menus);
+        }
         checkPaginatedRequirements(pages, nextItemSlot, previousItemSlot, nextItem, previousItem);
         return type == MenuType.CHEST
                 ? new PaginatedMenuImpl(rows, pages, title, modifiers, nextItem, previousItem, nextItemSlot, previousItemSlot, menus)
                 : new PaginatedMenuImpl(type, pages, title, modifiers, nextItem, previousItem, nextItemSlot, previousItemSlot, menus);
     }
 
+    /**
+     * Builds a template menu, lets the consumer fill it and compiles it into a blueprint.
+     * @param setup fills the template with pages, items and actions
+     * @return the blueprint
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public MenuBlueprint blueprint(@NotNull Consumer<IndexedPagination> setup) {
+        IndexedPagination template = build();
+        setup.accept(template);
+        return MenuBlueprint.of(template);
+    }
+
     private static void checkPaginatedRequirements(int pages, int next, int previous, MenuItem nextItem, MenuItem previousItem) {
         if (pages < 1) throw new IllegalArgumentException("Pages must be more than 1" + "Pages: " + pages + "\nFix: Pages must be more than 1");
         if (next == -1 || previous == -1 || nextItem == null || previousItem == null) {
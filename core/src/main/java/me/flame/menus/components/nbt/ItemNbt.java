@@ -12,13 +12,105 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * PDC NBT wrapper.
+ * <p>
+ * Keys are created once and cached. Every method on an {@link ItemStack} copies its meta and writes it back,
+ * to write several tags at once use {@link #edit(ItemStack)} or the methods taking an {@link ItemMeta}.
  */
 @SuppressWarnings("unused")
 public final class ItemNbt {
     private static final Plugin PLUGIN = JavaPlugin.getProvidingPlugin(ItemNbt.class);
 
+    private static final Map<String, NamespacedKey> KEYS = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the cached key of this wrapper.
+     *
+     * @param key The NBT key.
+     * @return The {@link NamespacedKey} in the namespace of the plugin.
+     */
+    @NotNull
+    public static NamespacedKey key(@NotNull final String key) {
+        NamespacedKey cached = KEYS.get(key);
+        return cached != null ? cached : KEYS.computeIfAbsent(key, name -> new NamespacedKey(PLUGIN, name));
+    }
+
+    /**
+     * Starts a batch of tag writes, the meta is copied once and written back once on {@link Edit#apply()}.
+     *
+     * @param itemStack The {@link ItemStack} to edit.
+     * @return The batch.
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public static Edit edit(@NotNull final ItemStack itemStack) {
+        return new Edit(itemStack);
+    }
+
+    /**
+     * Sets a String NBT tag to the meta, without writing it to an item.
+     *
+     * @param meta  The {@link ItemMeta} to set it to.
+     * @param key   The NBT key to use.
+     * @param value The tag value to set.
+     */
+    public static void setString(@NotNull final ItemMeta meta, final String key, final String value) {
+        meta.getPersistentDataContainer().set(key(key), PersistentDataType.STRING, value);
+    }
+
+    /**
+     * Sets a long NBT tag to the meta, without writing it to an item.
+     *
+     * @param meta  The {@link ItemMeta} to set it to.
+     * @param key   The NBT key to use.
+     * @param value The tag value to set.
+     */
+    public static void setLong(@NotNull final ItemMeta meta, final String key, final long value) {
+        meta.getPersistentDataContainer().set(key(key), PersistentDataType.LONG, value);
+    }
+
+    /**
+     * Gets a String NBT tag of the meta.
+     *
+     * @param meta The {@link ItemMeta} to get from.
+     * @param key  The key to look for.
+     * @return The tag, or null if it isn't set.
+     */
+    @Nullable
+    public static String getString(@NotNull final ItemMeta meta, final String key) {
+        return meta.getPersistentDataContainer().get(key(key), PersistentDataType.STRING);
+    }
+
+    /**
+     * Gets a long NBT tag of the meta.
+     *
+     * @param meta The {@link ItemMeta} to get from.
+     * @param key  The key to look for.
+     * @return The tag, or null if it isn't set.
+     */
+    @Nullable
+    public static Long getLong(@NotNull final ItemMeta meta, final String key) {
+        return meta.getPersistentDataContainer().get(key(key), PersistentDataType.LONG);
+    }
+
+    /**
+     * Sets a boolean NBT tag to the meta, without writing it to an item.
+     *
+     * @param meta  The {@link ItemMeta} to set it to.
+     * @param key   The NBT key to use.
+     * @param value The boolean value.
+     */
+    public static void setBoolean(@NotNull final ItemMeta meta, final String key, final boolean value) {
+        meta.getPersistentDataContainer().set(key(key), PersistentDataType.BYTE, value ? (byte) 1 : 0);
+    }
+
     /**
      * Sets a String NBT tag to the an {@link ItemStack}.
      *
@@ -30,7 +122,25 @@ public final class ItemNbt {
     public static ItemStack setString(@NotNull final ItemStack itemStack, final String key, final String value) {
         final ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return itemStack;
-        meta.getPersistentDataContainer().set(new NamespacedKey(PLUGIN, key), PersistentDataType.STRING, value);
+        meta.getPersistentDataContainer().set(key(key), PersistentDataType.STRING, value);
+        itemStack.setItemMeta(meta);
+        return itemStack;
+    }
+
+    /**
+     * Sets a long NBT tag to an {@link ItemStack}.
+     *
+     * @param itemStack The current {@link ItemStack} to be set.
+     * @param key       The NBT key to use.
+     * @param value     The tag value to set.
+     * @return An {@link ItemStack} that has NBT set.
+     */
+    @NotNull
+    @Contract("_, _, _ -> param1")
+    public static ItemStack setLong(@NotNull final ItemStack itemStack, final String key, final long value) {
+        final ItemMeta meta = itemStack.getItemMeta();
+        if (meta == null) return itemStack;
+        setLong(meta, key, value);
         itemStack.setItemMeta(meta);
         return itemStack;
     }
@@ -47,7 +157,7 @@ public final class ItemNbt {
     public static ItemStack removeTag(@NotNull final ItemStack itemStack, final String key) {
         final ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return itemStack;
-        meta.getPersistentDataContainer().remove(new NamespacedKey(PLUGIN, key));
+        meta.getPersistentDataContainer().remove(key(key));
         itemStack.setItemMeta(meta);
         return itemStack;
     }
@@ -66,7 +176,7 @@ public final class ItemNbt {
     public static ItemStack setBoolean(@NotNull final ItemStack itemStack, final String key, final boolean value) {
         final ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return itemStack;
-        meta.getPersistentDataContainer().set(new NamespacedKey(PLUGIN, key), PersistentDataType.BYTE, value ? (byte) 1 : 0);
+        meta.getPersistentDataContainer().set(key(key), PersistentDataType.BYTE, value ? (byte) 1 : 0);
         itemStack.setItemMeta(meta);
         return itemStack;
     }
@@ -82,6 +192,71 @@ public final class ItemNbt {
     public static String getString(@NotNull final ItemStack itemStack, final String key) {
         final ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return null;
-        return meta.getPersistentDataContainer().get(new NamespacedKey(PLUGIN, key), PersistentDataType.STRING);
+        return meta.getPersistentDataContainer().get(key(key), PersistentDataType.STRING);
+    }
+
+    /**
+     * Gets the keys of every tag set through this wrapper, whatever their type.
+     *
+     * @param itemStack The {@link ItemStack} to get from.
+     * @return The keys without their namespace.
+     */
+    @NotNull
+    public static Set<String> getKeys(@NotNull final ItemStack itemStack) {
+        final ItemMeta meta = itemStack.getItemMeta();
+        if (meta == null) return Set.of();
+        final String namespace = PLUGIN.getName().toLowerCase(Locale.ROOT);
+        Set<String> keys = new HashSet<>();
+        for (NamespacedKey key : meta.getPersistentDataContainer().getKeys()) {
+            if (key.getNamespace().equals(namespace)) keys.add(key.getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * A batch of tag writes on one copy of the meta of an {@link ItemStack}.
+     */
+    public static final class Edit {
+        private final ItemStack itemStack;
+        private final ItemMeta meta;
+
+        private Edit(@NotNull final ItemStack itemStack) {
+            this.itemStack = itemStack;
+            this.meta = itemStack.getItemMeta();
+        }
+
+        @Contract("_, _ -> this")
+        public Edit setString(final String key, final String value) {
+            if (meta != null) ItemNbt.setString(meta, key, value);
+            return this;
+        }
+
+        @Contract("_, _ -> this")
+        public Edit setLong(final String key, final long value) {
+            if (meta != null) ItemNbt.setLong(meta, key, value);
+            return this;
+        }
+
+        @Contract("_, _ -> this")
+        public Edit setBoolean(final String key, final boolean value) {
+            if (meta != null) ItemNbt.setBoolean(meta, key, value);
+            return this;
+        }
+
+        @Contract("_ -> this")
+        public Edit removeTag(final String key) {
+            if (meta != null) meta.getPersistentDataContainer().remove(key(key));
+            return this;
+        }
+
+        /**
+         * Writes the meta back to the item.
+         *
+         * @return The edited {@link ItemStack}.
+         */
+        public ItemStack apply() {
+            if (meta != null) itemStack.setItemMeta(meta);
+            return itemStack;
+        }
     }
 }
@@ -254,6 +254,7 @@ public class ItemEditor {
         this.item.setItemMeta(meta);
         button.stack = item;
         button.clickAction = clickAction;
+        button.changed();
         return button;
     }
 }
@@ -0,0 +1,69 @@
+package me.flame.menus.items;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the 64-bit ids of menu items.
+ * <p>
+ * Every thread reserves a block of ids from one shared counter and counts through it on its own,
+ * so creating items in parallel doesn't contend on the counter or on a {@link java.security.SecureRandom}.
+ * The counter starts at a random value, which keeps ids of serialized items from colliding with ids handed out after a restart.
+ * <p>
+ * Items created with a {@link UUID} keep it, their id is folded from it by {@link #of(UUID)}.
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class ItemIds {
+    /**
+     * The NBT key of the id as a long.
+     */
+    public static final String ID_KEY = "woody-id";
+
+    /**
+     * The NBT key of the id of UUID based items, as a string.
+     */
+    public static final String LEGACY_KEY = "woody-menu";
+
+    private static final int BLOCK_SIZE = 1024;
+
+    private static final AtomicLong NEXT_BLOCK = new AtomicLong(ThreadLocalRandom.current().nextLong());
+
+    private static final ThreadLocal<long[]> BLOCKS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private ItemIds() {}
+
+    /**
+     * @return an id no other item of this server run has
+     */
+    public static long next() {
+        // { next id, end of the block }
+        final long[] block = BLOCKS.get();
+        if (block[0] == block[1]) {
+            block[0] = NEXT_BLOCK.getAndAdd(BLOCK_SIZE);
+            block[1] = block[0] + BLOCK_SIZE;
+        }
+        return block[0]++;
+    }
+
+    /**
+     * Gets the id of a unique id, the ids of {@link #toUniqueId(long)} map back to themselves.
+     * @param uniqueId the unique id
+     * @return the id
+     */
+    public static long of(@NotNull UUID uniqueId) {
+        final long most = uniqueId.getMostSignificantBits(), least = uniqueId.getLeastSignificantBits();
+        return most == 0 ? least : most ^ least;
+    }
+
+    /**
+     * @param id the id
+     * @return a unique id carrying the id
+     */
+    public static @NotNull UUID toUniqueId(long id) {
+        return new UUID(0, id);
+    }
+}
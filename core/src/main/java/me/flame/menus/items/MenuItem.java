@@ -11,6 +11,7 @@ import org.bukkit.configuration.serialization.SerializableAs;
 import org.bukkit.inventory.ItemStack;
 
 import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -54,26 +55,57 @@ public final class MenuItem implements
     boolean async = false;
     private Predicate<Menu> visiblity;
 
-    private final UUID uniqueId;
+    /**
+     * The identity of the item, see {@link ItemIds}.
+     */
+    private final long id;
+
+    /**
+     * Only set for items created with a unique id, their stack keeps the old string tag.
+     */
+    private final @Nullable UUID uniqueId;
 
     private final boolean excludeDefaultNbt;
 
     private ClickSound sound;
 
-    private MenuItem(ItemStack itemStack, @Nullable ItemResponse action, @Nullable UUID uniqueId, boolean excludeNbt) {
+    /**
+     * Bumped whenever the stack changes, so renderers can notice edits made on the same stack.
+     */
+    private int version;
+
+    private MenuItem(ItemStack itemStack, @Nullable ItemResponse action, long id, @Nullable UUID uniqueId, boolean excludeNbt, boolean tagged) {
         Objects.requireNonNull(itemStack);
+        this.id = id;
         this.uniqueId = uniqueId;
         this.excludeDefaultNbt = excludeNbt;
-        this.stack = (uniqueId != null && !excludeNbt) ? ItemNbt.setString(itemStack, "woody-menu", uniqueId.toString()) : itemStack;
         this.clickAction = action;
+        this.stack = excludeNbt || tagged ? itemStack : tag(itemStack);
+    }
+
+    private ItemStack tag(ItemStack stack) {
+        return uniqueId != null ? ItemNbt.setString(stack, ItemIds.LEGACY_KEY, uniqueId.toString()) : ItemNbt.setLong(stack, ItemIds.ID_KEY, id);
     }
 
     public void setNbt(String key, String value) {
         ItemNbt.setString(stack, key, value);
+        changed();
+    }
+
+    /**
+     * Sets several NBT tags, copying and writing back the meta of the stack once.
+     * @param tags the keys and values
+     */
+    public void setNbt(@NotNull Map<String, String> tags) {
+        ItemNbt.Edit edit = ItemNbt.edit(stack);
+        tags.forEach(edit::setString);
+        edit.apply();
+        changed();
     }
 
     public void setAmount(int amount) {
         this.stack.setAmount(amount);
+        changed();
     }
 
     public int getAmount() {
@@ -94,7 +126,8 @@ public final class MenuItem implements
     public @NotNull SkullItemEditor skullEditor() { return new SkullItemEditor(this); }
 
     public void setItem(ItemStack stack) {
-        this.stack = ItemNbt.setString(stack, "woody-menu", uniqueId.toString());
+        this.stack = tag(stack);
+        changed();
     }
 
     public @NotNull Material getType() { return stack.getType(); }
@@ -103,7 +136,7 @@ public final class MenuItem implements
     public boolean equals(Object item) {
         if (item == this) return true;
         if (!(item instanceof MenuItem)) return false;
-        return this.uniqueId.equals(((MenuItem) item).uniqueId);
+        return this.id == ((MenuItem) item).id;
     }
 
     @Override
@@ -127,7 +160,8 @@ public final class MenuItem implements
     public @NotNull Map<String, Object> serialize() {
         final Map<String, Object> result = new LinkedHashMap<>(4);
         result.put("type", getType().name());
-        result.put("uuid", uniqueId);
+        if (uniqueId != null) result.put("uuid", uniqueId);
+        else result.put("id", id);
         result.put("excludeNbt", excludeDefaultNbt);
 
         final ItemMeta meta = stack.getItemMeta();
@@ -147,20 +181,24 @@ public final class MenuItem implements
         final ItemMeta meta = (ItemMeta) serialized.get("meta");
 
         final UUID uuid = (UUID) serialized.get("uuid");
-        if (uuid == null) throw new NullPointerException("UUID turned out to be null, not good! \nResorting to error NPE \nSerialized Map: " + serialized);
+        final Number id = (Number) serialized.get("id");
+        if (uuid == null && id == null) throw new NullPointerException("Both the UUID and the id turned out to be null, not good! \nResorting to error NPE \nSerialized Map: " + serialized);
 
         final ItemStack result = new ItemStack(Material.valueOf(type), amount);
         if (meta != null) result.setItemMeta(meta);
 
-        return new MenuItem(result, null, uuid, (boolean) serialized.getOrDefault("excludeNbt", false));
+        final boolean excludeNbt = (boolean) serialized.getOrDefault("excludeNbt", false);
+        return uuid != null
+                ? new MenuItem(result, null, ItemIds.of(uuid), uuid, excludeNbt, false)
+                : new MenuItem(result, null, id.longValue(), null, excludeNbt, false);
     }
 
     @Override
-    public int hashCode() {return uniqueId.hashCode(); } // UUID provide a fast and anti-collision hashcode
+    public int hashCode() {return Long.hashCode(id); }
 
     @Override
     public int compareTo(@NotNull MenuItem item) {
-        return uniqueId.compareTo(item.uniqueId);
+        return Long.compare(id, item.id);
     }
 
     @SuppressWarnings("deprecation")
@@ -173,8 +211,41 @@ public final class MenuItem implements
         editor().setName(spigotify(stack, s)).done();
     }
 
+    /**
+     * The identity used by {@link #equals(Object)}, {@link #hashCode()} and {@link #compareTo(MenuItem)}.
+     * @return the id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * The unique id the item was created with, or one carrying its {@link #getId() id}.
+     * @return the unique id
+     */
     public @NotNull UUID getUniqueId() {
-        return uniqueId;
+        return uniqueId != null ? uniqueId : ItemIds.toUniqueId(id);
+    }
+
+    /**
+     * Checks the id tag of a stack against this item, stacks without a tag match every item.
+     * @param stack the stack
+     * @return whether the stack may show this item
+     */
+    @ApiStatus.Internal
+    public boolean isTagOf(@NotNull ItemStack stack) {
+        final ItemMeta meta = stack.getItemMeta();
+        if (meta == null) return true;
+        final Long tagged = ItemNbt.getLong(meta, ItemIds.ID_KEY);
+        if (tagged != null) return tagged == id;
+
+        final String legacy = ItemNbt.getString(meta, ItemIds.LEGACY_KEY);
+        if (legacy == null) return true;
+        try {
+            return ItemIds.of(UUID.fromString(legacy)) == id;
+        } catch (IllegalArgumentException ignored) {
+            return false;
+        }
     }
 
     public Predicate<Menu> getVisiblity() {
@@ -189,6 +260,19 @@ public final class MenuItem implements
         return stack;
     }
 
+    /**
+     * The modification count of the stack of this item.
+     * @return the version
+     */
+    @ApiStatus.Internal
+    public int getVersion() {
+        return version;
+    }
+
+    void changed() {
+        version++;
+    }
+
 
     /*
      * Static methods
@@ -215,21 +299,40 @@ public final class MenuItem implements
 
     @Contract("_ -> new")
     public static @NotNull MenuItem of(ItemStack itemStack) {
-        return new MenuItem(itemStack, null, UUID.randomUUID(), false);
+        return new MenuItem(itemStack, null, ItemIds.next(), null, false, false);
     }
 
     @Contract("_, _ -> new")
     public static @NotNull MenuItem of(ItemStack itemStack, ItemResponse response) {
-        return new MenuItem(itemStack, response, UUID.randomUUID(), false);
+        return new MenuItem(itemStack, response, ItemIds.next(), null, false, false);
     }
 
     @Contract("_, _ -> new")
     public static @NotNull MenuItem of(ItemStack itemStack, boolean excludeNbt) {
-        return new MenuItem(itemStack, null, UUID.randomUUID(), excludeNbt);
+        return new MenuItem(itemStack, null, ItemIds.next(), null, excludeNbt, false);
     }
 
     @Contract("_, _, _ -> new")
     public static @NotNull MenuItem of(ItemStack itemStack, ItemResponse response, boolean excludeNbt) {
-        return new MenuItem(itemStack, response, UUID.randomUUID(), excludeNbt);
+        return new MenuItem(itemStack, response, ItemIds.next(), null, excludeNbt, false);
+    }
+
+    /**
+     * Creates an item with the given unique id, its stack is tagged with the unique id as a string like before ids were compacted.
+     * Use it to keep matching stacks that were tagged by an older version.
+     */
+    @Contract("_, _, _ -> new")
+    public static @NotNull MenuItem of(ItemStack itemStack, ItemResponse response, @NotNull UUID uniqueId) {
+        return new MenuItem(itemStack, response, ItemIds.of(uniqueId), uniqueId, false, false);
+    }
+
+    /**
+     * Creates an item from a stack that already carries the id in its id tag,
+     * for builders that write the tag together with the rest of their meta.
+     */
+    @ApiStatus.Internal
+    @Contract("_, _, _ -> new")
+    public static @NotNull MenuItem tagged(ItemStack itemStack, ItemResponse response, long id) {
+        return new MenuItem(itemStack, response, id, null, false, true);
     }
 }
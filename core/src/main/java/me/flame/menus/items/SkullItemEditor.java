@@ -1,13 +1,15 @@
 package me.flame.menus.items;
 
 import com.destroystokyo.paper.profile.PlayerProfile;
-import com.destroystokyo.paper.profile.ProfileProperty;
-import org.bukkit.Bukkit;
+
+import me.flame.menus.menu.Menu;
+import me.flame.menus.menu.Menus;
+
 import org.bukkit.OfflinePlayer;
 import org.bukkit.inventory.meta.SkullMeta;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.UUID;
+import java.util.logging.Level;
 
 /**
  * @since 2.0.0
@@ -26,9 +28,7 @@ public class SkullItemEditor extends ItemEditor {
      * @author Foxikle
      */
     public SkullItemEditor setTexture(@NotNull String value) {
-        PlayerProfile profile = Bukkit.getServer().createProfile(UUID.randomUUID(), "player_head");
-        profile.setProperty(new ProfileProperty("textures", value));
-        skullMeta.setPlayerProfile(profile);
+        skullMeta.setPlayerProfile(SkullProfiles.texture(value));
         return this;
     }
 
@@ -37,11 +37,49 @@ public class SkullItemEditor extends ItemEditor {
         return this;
     }
 
+    /**
+     * Sets the owner without making the server resolve their skin when the head is sent.
+     * <p>
+     * A cached profile of the owner is applied straight away. Otherwise the head shows the
+     * {@link SkullProfiles#getPlaceholder() placeholder} and the profile is completed on the async executor of the menus,
+     * then the menu is updated, which rewrites only the slots showing this item.
+     * If the profile can't be completed, the failure is logged and the owner is set like {@link #setOwner(OfflinePlayer)},
+     * which is also what happens right away for a menu without a {@link Menus} manager.
+     * @param player the owner
+     * @param menu the menu showing the item
+     * @return This editor
+     */
+    public SkullItemEditor setOwner(@NotNull OfflinePlayer player, @NotNull Menu menu) {
+        PlayerProfile cached = SkullProfiles.cachedOwner(player.getUniqueId());
+        if (cached != null) {
+            skullMeta.setPlayerProfile(cached);
+            return this;
+        }
+
+        // without a manager there is no executor to resolve on, the server resolves the owner instead
+        final Menus manager = menu.manager();
+        if (manager == null) return setOwner(player);
+
+        String placeholder = SkullProfiles.getPlaceholder();
+        if (placeholder != null) skullMeta.setPlayerProfile(SkullProfiles.texture(placeholder));
+        SkullProfiles.resolve(player, menu).whenCompleteAsync((profile, throwable) -> {
+            if (throwable == null) {
+                SkullProfiles.apply(button, profile);
+            } else {
+                manager.getPlugin().getLogger().log(Level.WARNING, "Couldn't resolve the skull owner " + player.getUniqueId() + ", the server resolves it instead", throwable);
+                SkullProfiles.applyOwner(button, player);
+            }
+            menu.update();
+        }, manager.getExecutor().mainThread());
+        return this;
+    }
+
     @Override
     public MenuItem done() {
         this.item.setItemMeta(skullMeta);
         button.stack = this.item;
         button.clickAction = clickAction;
+        button.changed();
         return button;
     }
 }
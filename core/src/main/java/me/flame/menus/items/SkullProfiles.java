@@ -0,0 +1,168 @@
+package me.flame.menus.items;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import com.destroystokyo.paper.profile.ProfileProperty;
+
+import me.flame.menus.menu.Menu;
+import me.flame.menus.menu.Menus;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Caches the profiles of skull items.
+ * <p>
+ * Texture profiles are keyed by their texture value and get a UUID derived from it,
+ * so the same texture is one profile to the server and to the client.
+ * Owner profiles are completed once on the async executor of the menus and reused afterwards,
+ * until then the head shows the placeholder texture.
+ * Both caches drop the least recently used profile once they hold more than {@link #getCacheSize()} profiles.
+ * The cached profiles never leave this class, every method hands out a copy.
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class SkullProfiles {
+    public static final int DEFAULT_CACHE_SIZE = 512;
+
+    private static volatile int cacheSize = DEFAULT_CACHE_SIZE;
+
+    private static final Map<String, PlayerProfile> TEXTURES = lruCache();
+    private static final Map<UUID, PlayerProfile> OWNERS = lruCache();
+
+    /**
+     * Owners being completed right now, so concurrent heads of the same owner share one lookup.
+     */
+    private static final Map<UUID, CompletableFuture<PlayerProfile>> RESOLVING = new ConcurrentHashMap<>();
+
+    private static volatile String placeholder;
+
+    private SkullProfiles() {}
+
+    /**
+     * Gets the profile of a texture, the cached profile is created on first use.
+     * @param value the texture value
+     * @return a copy of the profile, with the same UUID for every head with the texture
+     */
+    public static @NotNull PlayerProfile texture(@NotNull String value) {
+        PlayerProfile cached = TEXTURES.get(value);
+        if (cached != null) return cached.clone();
+        PlayerProfile profile = Bukkit.getServer().createProfile(UUID.nameUUIDFromBytes(value.getBytes(StandardCharsets.UTF_8)), "player_head");
+        profile.setProperty(new ProfileProperty("textures", value));
+        TEXTURES.put(value, profile);
+        return profile.clone();
+    }
+
+    /**
+     * @param owner the owner
+     * @return a copy of the completed profile of the owner, or null if it wasn't resolved yet
+     */
+    public static @Nullable PlayerProfile cachedOwner(@NotNull UUID owner) {
+        PlayerProfile cached = OWNERS.get(owner);
+        return cached == null ? null : cached.clone();
+    }
+
+    /**
+     * Completes the profile of the owner on the async executor of the menus, or returns the cached one.
+     * @param player the owner
+     * @param menu the menu whose executor runs the lookup
+     * @return the future copy of the profile, failed if the profile couldn't be completed
+     */
+    public static @NotNull CompletableFuture<PlayerProfile> resolve(@NotNull OfflinePlayer player, @NotNull Menu menu) {
+        final UUID owner = player.getUniqueId();
+        PlayerProfile cached = OWNERS.get(owner);
+        if (cached != null) return CompletableFuture.completedFuture(cached.clone());
+
+        final Menus manager = menu.manager();
+        if (manager == null) throw new IllegalStateException("Resolving skull owners needs the menu to have a Menus manager");
+        final CompletableFuture<PlayerProfile> future = new CompletableFuture<>();
+        final CompletableFuture<PlayerProfile> running = RESOLVING.putIfAbsent(owner, future);
+        if (running != null) return running.thenApply(PlayerProfile::clone);
+
+        final boolean accepted = manager.getExecutor().tryExecute(() -> {
+            try {
+                PlayerProfile profile = Bukkit.getServer().createProfile(owner, player.getName());
+                if (!profile.completeFromCache() && !profile.complete(true)) throw new IllegalStateException("The profile of " + owner + " couldn't be completed");
+                OWNERS.put(owner, profile);
+                future.complete(profile);
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        if (!accepted) future.completeExceptionally(new RejectedExecutionException("The menu executor rejected the lookup of " + owner));
+        future.whenComplete((profile, throwable) -> RESOLVING.remove(owner, future));
+        return future.thenApply(PlayerProfile::clone);
+    }
+
+    /**
+     * Sets the texture heads show while their owner is resolved, null keeps them as plain heads.
+     * @param value the texture value
+     */
+    public static void setPlaceholder(@Nullable String value) {
+        placeholder = value;
+    }
+
+    public static @Nullable String getPlaceholder() {
+        return placeholder;
+    }
+
+    public static int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Changes the amount of profiles every cache keeps, the caches shrink on their next insertion.
+     * @param size the amount of profiles
+     */
+    public static void setCacheSize(int size) {
+        if (size < 1) throw new IllegalArgumentException("The cache must hold at least one profile\nSize: " + size + "\nFix: Use a value above 0");
+        cacheSize = size;
+    }
+
+    public static void clear() {
+        TEXTURES.clear();
+        OWNERS.clear();
+    }
+
+    /**
+     * Puts the profile on the current stack of the item and marks the item changed, so the next flush of a menu rewrites only its slots.
+     */
+    static void apply(@NotNull MenuItem item, @NotNull PlayerProfile profile) {
+        edit(item, skullMeta -> skullMeta.setPlayerProfile(profile));
+    }
+
+    /**
+     * Lets the server resolve the owner of the item, used when the profile couldn't be completed.
+     */
+    static void applyOwner(@NotNull MenuItem item, @NotNull OfflinePlayer player) {
+        edit(item, skullMeta -> skullMeta.setOwningPlayer(player));
+    }
+
+    private static void edit(MenuItem item, Consumer<SkullMeta> edit) {
+        final ItemMeta meta = item.stack.getItemMeta();
+        if (!(meta instanceof SkullMeta skullMeta)) return;
+        edit.accept(skullMeta);
+        item.stack.setItemMeta(skullMeta);
+        item.changed();
+    }
+
+    private static <K> Map<K, PlayerProfile> lruCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<K, PlayerProfile>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, PlayerProfile> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+}
@@ -6,10 +6,14 @@ import me.flame.menus.menu.actions.Actions;
 import me.flame.menus.menu.animation.Animation;
 import me.flame.menus.menu.contents.BukkitContents;
 import me.flame.menus.menu.opener.MenuOpener;
+import me.flame.menus.metrics.MenuMetrics;
 import me.flame.menus.modifiers.Modifier;
+import me.flame.menus.modifiers.ModifierTable;
 
 import net.kyori.adventure.text.Component;
 
+import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.jetbrains.annotations.NotNull;
@@ -21,11 +25,23 @@ public abstract class AbstractMenu implements Menu {
     @NotNull
     protected EnumSet<Modifier> modifiers;
 
+    /**
+     * The table and the modifiers it was compiled from, compiled again once the live set differs.
+     */
+    private ModifierTable modifierTable;
+    private EnumSet<Modifier> compiledModifiers;
+
     protected Component title;
 
     protected boolean dynamicSizing = false, updating = false;
 
     protected boolean animating = false;
+
+    /**
+     * Whether updates are merged into one flush per tick, and whether that flush was already requested.
+     */
+    protected boolean coalescing = false;
+    protected volatile boolean flushRequested = false;
     protected int rows, size;
 
     @Override
@@ -43,11 +59,14 @@ public abstract class AbstractMenu implements Menu {
 
     protected ItemResponse[] slotActions;
 
-    Actions actions = new Actions(this);
+    /**
+     * Created on first use, menus instantiated from a blueprint start with the shared actions of it.
+     */
+    Actions actions;
 
     protected AbstractMenu(int size, int rows, Component title, @NotNull EnumSet<Modifier> modifiers, MenuOpener opener, Menus manager) {
         this.manager = manager;
-        this.modifiers = modifiers;
+        this.modifiers = modifiers.clone();
         this.size = size;
         this.rows = rows;
         this.type = MenuType.CHEST;
@@ -60,7 +79,7 @@ public abstract class AbstractMenu implements Menu {
             throw new IllegalArgumentException("Not allowed, use the size/rows constructor. CHEST InventoryType detected.");
         }
         this.manager = manager;
-        this.modifiers = modifiers;
+        this.modifiers = modifiers.clone();
         this.size = type.maxSize();
         this.rows = type.maxRows();
         this.type = type;
@@ -68,6 +87,22 @@ public abstract class AbstractMenu implements Menu {
         this.opener = opener;
     }
 
+    /**
+     * Instantiates a menu from a blueprint, the inventory is only created once the menu needs it.
+     */
+    protected AbstractMenu(@NotNull MenuBlueprint blueprint) {
+        this.manager = blueprint.manager();
+        this.modifiers = blueprint.modifiers();
+        this.size = blueprint.size();
+        this.rows = blueprint.rows();
+        this.type = blueprint.type();
+        this.title = blueprint.title();
+        this.opener = blueprint.opener();
+        this.dynamicSizing = blueprint.isDynamicSizing();
+        this.slotActions = blueprint.slotActions();
+        this.actions = blueprint.actionsFor(this);
+    }
+
     @Override
     public Stream<MenuItem> stream() {
         return contents.stream();
@@ -90,7 +125,15 @@ public abstract class AbstractMenu implements Menu {
 
     @Override
     public void removeAllModifiers() {
-        Modifier.ALL.forEach(modifiers::remove);
+        modifiers.removeAll(Modifier.ALL);
+    }
+
+    @Override
+    public @NotNull ModifierTable modifierTable() {
+        ModifierTable table = this.modifierTable;
+        if (table != null && modifiers.equals(compiledModifiers)) return table;
+        this.compiledModifiers = modifiers.clone();
+        return this.modifierTable = ModifierTable.compile(modifiers);
     }
 
     @Override
@@ -145,7 +188,8 @@ public abstract class AbstractMenu implements Menu {
 
     @Override
     public Actions actions() {
-        return actions;
+        Actions current = this.actions;
+        return current == null ? (this.actions = new Actions(this)) : current;
     }
 
     @Override
@@ -153,6 +197,26 @@ public abstract class AbstractMenu implements Menu {
         return contents;
     }
 
+    @Override
+    public int slotOf(@NotNull MenuItem item) {
+        return contents.slotOf(item);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt slotsOf(@NotNull Material material) {
+        return contents.slotsOf(material);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt slotsWithNbt(@NotNull String key) {
+        return contents.slotsWithNbt(key);
+    }
+
+    @Override
+    public int removeAll(@NotNull Collection<UUID> uniqueIds) {
+        return contents.removeAll(uniqueIds);
+    }
+
     @Override
     public @NotNull EnumSet<Modifier> getModifiers() {
         return modifiers;
@@ -181,7 +245,8 @@ public abstract class AbstractMenu implements Menu {
     @NotNull
     @Override
     public Inventory getInventory() {
-        return inventory;
+        Inventory current = this.inventory;
+        return current == null ? (this.inventory = createInventory()) : current;
     }
 
     @Override
@@ -209,5 +274,83 @@ public abstract class AbstractMenu implements Menu {
 
     public void setInventory(final Inventory inventory) {
         this.inventory = inventory;
+        if (manager != null) manager.register(inventory, this);
+    }
+
+    @Override
+    public void update() {
+        if (coalescing) requestFlush();
+        else flushNow();
+    }
+
+    @Override
+    public void updatePer(long delay, long repeatTime) {
+        if (repeatTime <= 0) throw new IllegalThreadStateException("Synchronously calling an update method that has no delay or repeat delay. \nGoal: This prevents blocking because the delay is too low.");
+        manager.getTasks().schedule(this, "update", delay, repeatTime, Menu::update);
+    }
+
+    @Override
+    public void discard() {
+        if (manager != null) manager.getTasks().release(this);
+        contents.release();
+    }
+
+    @Override
+    public void flushNow() {
+        this.flushRequested = false;
+        // only the changed slots are written, the server sends those to the viewers on its own
+        flushContents();
+    }
+
+    @Override
+    public void setCoalescing(boolean coalescing) {
+        this.coalescing = coalescing;
+        if (!coalescing && flushRequested) flushNow();
+    }
+
+    @Override
+    public boolean isCoalescing() {
+        return coalescing;
+    }
+
+    @Override
+    public void requestFlush() {
+        if (flushRequested) return;
+        this.flushRequested = true;
+        if (manager == null) flushNow();
+        else manager.scheduleFlush(this);
+    }
+
+    /**
+     * Writes the changed slots of the contents into the inventory, recording the render when metrics are enabled.
+     * @return the amount of slots written
+     */
+    protected int flushContents() {
+        // nothing to render into until the inventory is created
+        if (inventory == null) return 0;
+        MenuMetrics metrics = manager == null ? null : manager.getMetrics();
+        if (metrics == null || !metrics.isEnabled()) return contents.flush(inventory);
+        final long start = System.nanoTime();
+        final int written = contents.flush(inventory);
+        metrics.recordRender(this, System.nanoTime() - start, written);
+        return written;
+    }
+
+    /**
+     * @return the viewers of the inventory, empty if it wasn't created yet
+     */
+    protected List<HumanEntity> viewers() {
+        return inventory == null ? Collections.emptyList() : inventory.getViewers();
+    }
+
+    /**
+     * Opens a new inventory through the opener and registers it to this menu,
+     * so the listeners can find the menu without asking the inventory for its holder.
+     * @return the new inventory
+     */
+    protected Inventory createInventory() {
+        Inventory created = opener.open(manager, this, this.structure());
+        if (manager != null) manager.register(created, this);
+        return created;
     }
 }
@@ -0,0 +1,26 @@
+package me.flame.menus.menu;
+
+/**
+ * How a click is checked to be on the item the menu holds in the slot before its click action runs.
+ * <p>
+ * The check guards against clicks on stale slots, for example an item that was replaced but not flushed yet.
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public enum ClickValidation {
+    /**
+     * Compares the slot against what the menu last rendered into it, without reading the clicked stack's NBT.
+     * Falls back to {@link #NBT} when the contents don't know what they rendered, or the clicked stack doesn't look like it.
+     */
+    RENDERED,
+
+    /**
+     * Reads the menu item id from the NBT of the clicked stack.
+     */
+    NBT,
+
+    /**
+     * Runs the click action of the item in the slot without any check.
+     */
+    NONE
+}
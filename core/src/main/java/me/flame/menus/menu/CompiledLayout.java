@@ -0,0 +1,188 @@
+package me.flame.menus.menu;
+
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.contents.BukkitContents;
+import me.flame.menus.menu.contents.Contents;
+import me.flame.menus.menu.opener.MenuOpener;
+import me.flame.menus.modifiers.Modifier;
+
+import net.kyori.adventure.text.Component;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A layout whose pattern was resolved into slots once.
+ * <p>
+ * The items are stored by slot, so applying the layout is an array copy
+ * and contents created from it share the slots until they are first changed.
+ * Every character of the pattern also knows its slots.
+ * A compiled layout never changes and can be applied to any amount of menus.
+ * <pre>{@code
+ *      CompiledLayout lobby = new MenuLayoutBuilder(items).pattern(...).compile();
+ *      Menu menu = lobby.createMenu(title, EnumSet.noneOf(Modifier.class), menus);
+ * }</pre>
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class CompiledLayout {
+    private final int rows;
+
+    /**
+     * Sized for the largest menu, contents created from the layout read it directly.
+     */
+    private final MenuItem[] items;
+    private final long occupied;
+
+    private final char[] keys;
+    private final int[][] slots;
+
+    private CompiledLayout(int rows, MenuItem[] items, long occupied, char[] keys, int[][] slots) {
+        this.rows = rows;
+        this.items = items;
+        this.occupied = occupied;
+        this.keys = keys;
+        this.slots = slots;
+    }
+
+    /**
+     * Resolves every character of the pattern, characters without an item leave their slot empty.
+     * @param patterns one string per row, at most 9 characters each
+     * @param mappedButtons the item of every character
+     * @return the compiled layout
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull CompiledLayout compile(String @NotNull [] patterns, @NotNull Map<Character, MenuItem> mappedButtons) {
+        Objects.requireNonNull(patterns, "Pattern array must NOT be null.");
+        final int rows = patterns.length;
+        if (rows > 6 || rows < 1) throw new IllegalArgumentException("Patterns array has too many or too low rows (" + rows + "). \nFix: Reduce/increase the amount of strings in the array of pattern()");
+
+        final MenuItem[] items = new MenuItem[MenuType.CHEST.maxSize()];
+        long occupied = 0;
+        char[] keys = new char[8];
+        int[][] slots = new int[8][];
+        int[] counts = new int[8];
+        int keyCount = 0;
+
+        for (int row = 0; row < rows; row++) {
+            final String pattern = patterns[row];
+            final int columns = Math.min(pattern.length(), 9);
+            for (int column = 0; column < columns; column++) {
+                final char key = pattern.charAt(column);
+                final int slot = row * 9 + column;
+
+                int keyIndex = indexOf(keys, keyCount, key);
+                if (keyIndex == -1) {
+                    if (keyCount == keys.length) {
+                        keys = Arrays.copyOf(keys, keyCount * 2);
+                        slots = Arrays.copyOf(slots, keyCount * 2);
+                        counts = Arrays.copyOf(counts, keyCount * 2);
+                    }
+                    keyIndex = keyCount++;
+                    keys[keyIndex] = key;
+                    slots[keyIndex] = new int[9];
+                }
+                if (counts[keyIndex] == slots[keyIndex].length) slots[keyIndex] = Arrays.copyOf(slots[keyIndex], counts[keyIndex] * 2);
+                slots[keyIndex][counts[keyIndex]++] = slot;
+
+                final MenuItem item = mappedButtons.get(key);
+                if (item == null) continue;
+                items[slot] = item;
+                occupied |= 1L << slot;
+            }
+        }
+
+        for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) slots[keyIndex] = Arrays.copyOf(slots[keyIndex], counts[keyIndex]);
+        return new CompiledLayout(rows, items, occupied, Arrays.copyOf(keys, keyCount), Arrays.copyOf(slots, keyCount));
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int size() {
+        return rows * 9;
+    }
+
+    public @Nullable MenuItem itemAt(int slot) {
+        return slot >= 0 && slot < size() ? items[slot] : null;
+    }
+
+    /**
+     * @param key the character of the pattern
+     * @return the slots of the character in ascending order, empty if the pattern doesn't use it
+     */
+    public int @NotNull [] slotsOf(char key) {
+        final int keyIndex = indexOf(keys, keys.length, key);
+        return keyIndex == -1 ? new int[0] : slots[keyIndex].clone();
+    }
+
+    /**
+     * @return the characters the pattern uses, in the order they first appear
+     */
+    public char @NotNull [] keys() {
+        return keys.clone();
+    }
+
+    /**
+     * Creates contents reading the slots of the layout until they are first changed.
+     * @param menu the menu
+     * @return the contents
+     */
+    @Contract("_ -> new")
+    public @NotNull Contents createContents(@NotNull Menu menu) {
+        final int size = menu.size();
+        if (size >= size()) return new Contents(menu, items, occupied);
+        MenuItem[] truncated = items.clone();
+        Arrays.fill(truncated, size, size(), null);
+        return new Contents(menu, truncated, occupied & slotMask(size));
+    }
+
+    /**
+     * Replaces the slots the layout covers, slots of characters without an item are emptied.
+     * @param contents the contents
+     */
+    public void apply(@NotNull BukkitContents contents) {
+        final int length = Math.min(size(), contents.size());
+        if (contents instanceof Contents direct) {
+            direct.replaceRange(items, occupied, length);
+            return;
+        }
+        for (int slot = 0; slot < length; slot++) {
+            if (items[slot] == null) contents.removeItem(slot);
+            else contents.setItem(slot, items[slot]);
+        }
+    }
+
+    public void apply(@NotNull Menu menu) {
+        apply(menu.contents());
+        menu.update();
+    }
+
+    /**
+     * Creates a menu as tall as the pattern, its slots are shared with the layout until they are first changed.
+     * @param title the title
+     * @param modifiers the modifiers
+     * @param menus the menus the menu belongs to
+     * @return the menu
+     */
+    @Contract("_, _, _ -> new")
+    public @NotNull Menu createMenu(@NotNull Component title, @NotNull EnumSet<Modifier> modifiers, Menus menus) {
+        return new MenuImpl(rows, title, modifiers, menus, MenuOpener.DEFAULT, this::createContents);
+    }
+
+    private static int indexOf(char[] keys, int count, char key) {
+        for (int index = 0; index < count; index++) if (keys[index] == key) return index;
+        return -1;
+    }
+
+    private static long slotMask(int size) {
+        return size >= Long.SIZE ? -1L : (1L << size) - 1;
+    }
+}
@@ -4,6 +4,7 @@ import me.flame.menus.items.ItemResponse;
 import me.flame.menus.items.MenuItem;
 import me.flame.menus.menu.contents.BukkitContents;
 import me.flame.menus.menu.opener.MenuOpener;
+import me.flame.menus.metrics.MenuMetrics;
 import me.flame.menus.modifiers.Modifier;
 import me.flame.menus.menu.contents.Contents;
 import me.flame.menus.menu.pagination.Pagination;
@@ -17,6 +18,7 @@ import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -36,6 +38,11 @@ public class KeyedMenuImpl extends AbstractMenu implements
     @NotNull
     private final Map<Integer, MenuItem> pageItems;
 
+    /**
+     * The page items, shown over whichever page is visible instead of being copied into every page.
+     */
+    private final Contents pageOverlay;
+
     private String pageIdentifier;
 
     /**
@@ -56,10 +63,10 @@ public class KeyedMenuImpl extends AbstractMenu implements
      */
     public KeyedMenuImpl(final int pageRows, final int pageCount, Component title, EnumSet<Modifier> modifiers, MenuOpener opener, Menus menus) {
         super(pageRows * 9, pageRows, title, modifiers, opener, menus);
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
         this.pageItems = new LinkedHashMap<>(rows * 9);
         this.pages = new ConcurrentHashMap<>(pageCount);
-        setPageItems(contents);
+        this.pageOverlay = new Contents(this);
     }
 
     /**
@@ -67,10 +74,10 @@ public class KeyedMenuImpl extends AbstractMenu implements
      */
     public KeyedMenuImpl(OpenedType type, final int pageCount, Component title, EnumSet<Modifier> modifiers, MenuOpener opener, Menus menus) {
         super(type, title, modifiers, opener, menus);
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
         this.pageItems = new LinkedHashMap<>(rows * 9);
         this.pages = new ConcurrentHashMap<>(pageCount);
-        setPageItems(contents);
+        this.pageOverlay = new Contents(this);
     }
 
     /**
@@ -124,6 +131,11 @@ public class KeyedMenuImpl extends AbstractMenu implements
         this.contents.addRefreshableItem(index, item);
     }
 
+    @Override
+    public void addRefreshableItem(final int index, final Supplier<MenuItem> item, final long intervalTicks) {
+        this.contents.addRefreshableItem(index, item, intervalTicks);
+    }
+
     @Override
     public void removeRefreshableItem(final int index) {
         this.contents.removeRefreshableItem(index);
@@ -140,21 +152,34 @@ public class KeyedMenuImpl extends AbstractMenu implements
     }
 
     @Override
-    public void updatePer(final long delay, final long repeatTime) {
-        if (repeatTime > 0) Bukkit.getScheduler().runTaskTimer(manager.getPlugin(), this::update, delay, repeatTime);
-        throw new IllegalThreadStateException("Synchronously calling an update method that has no delay or repeat delay. \nGoal: This prevents blocking because the delay is too low.");
+    public void discard() {
+        super.discard();
+        pages.values().forEach(BukkitContents::release);
     }
 
     @Override
     public List<HumanEntity> getViewers() {
-        return inventory.getViewers();
+        return viewers();
     }
 
-    @Override
-    public void update() {
-        updating = true;
-        updatePlayerInventories(inventory, getViewers(), contents, player -> player.openInventory(this.inventory));
-        updating = false;
+    /**
+     * Swaps the visible page by writing the slots that differ into the open inventory,
+     * so the viewers keep their window and no open or close events are fired.
+     */
+    private void switchPage(BukkitContents page) {
+        BukkitContents previous = this.contents;
+        this.contents = page;
+        // rendered in full once the inventory is created
+        if (inventory == null) return;
+
+        MenuMetrics metrics = manager.getMetrics();
+        if (!metrics.isEnabled()) {
+            page.switchFrom(inventory, previous);
+            return;
+        }
+        final long start = System.nanoTime();
+        final int written = page.switchFrom(inventory, previous);
+        metrics.recordRender(this, System.nanoTime() - start, written);
     }
 
     @Override
@@ -162,7 +187,7 @@ public class KeyedMenuImpl extends AbstractMenu implements
         if (rows >= type.maxRows()) return;
         rows++;
         this.size = rows * type.maxColumns();
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
     }
 
     public void recreateInventory() {
@@ -172,9 +197,11 @@ public class KeyedMenuImpl extends AbstractMenu implements
     @Override
     public void updateTitle(final Component title) {
         Inventory oldInventory = inventory;
-        this.inventory = opener.open(manager, this, this.structure());
+        this.title = title;
+        if (oldInventory == null) return;
+        this.inventory = createInventory();
         updating = true;
-        updatePlayerInventories(oldInventory, getViewers(), contents, player -> player.openInventory(this.inventory));
+        updatePlayerInventories(this.inventory, oldInventory.getViewers(), contents, player -> player.openInventory(this.inventory));
         updating = false;
     }
 
@@ -228,6 +255,11 @@ public class KeyedMenuImpl extends AbstractMenu implements
         return contents.getItem(index);
     }
 
+    @Override
+    public @Nullable MenuItem itemAt(final int index) {
+        return contents.itemAt(index);
+    }
+
     @Override
     public void forEach(final Consumer<? super MenuItem> action) {
         contents.forEach(action);
@@ -299,12 +331,13 @@ public class KeyedMenuImpl extends AbstractMenu implements
 
     public void open(@NotNull final HumanEntity entity, final String openPage) {
         if (entity.isSleeping()) return;
-        Objects.requireNonNull(inventory, "Inventory was provided null by the menu opener: " + this.opener.getClass().getSimpleName() + " at: " + this.opener.getClass().getPackageName());
+        Objects.requireNonNull(getInventory(), "Inventory was provided null by the menu opener: " + this.opener.getClass().getSimpleName() + " at: " + this.opener.getClass().getPackageName());
 
         Bukkit.getScheduler().runTask(manager.getPlugin(), () -> {
             this.pageIdentifier = openPage;
-            this.contents = pages.get(openPage);
-            this.update();
+            this.switchPage(pages.get(openPage));
+            // rendered before the viewer sees it, even when updates are coalesced
+            this.flushNow();
             entity.openInventory(inventory);
         });
     }
@@ -318,7 +351,7 @@ public class KeyedMenuImpl extends AbstractMenu implements
         if (rows >= type.maxRows()) return;
         rows += growRows;
         this.size = rows * type.maxColumns();
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
     }
 
     /**
@@ -330,8 +363,7 @@ public class KeyedMenuImpl extends AbstractMenu implements
         BukkitContents pageData = pages.get(page);
         if (pageData == null) return false;
         this.pageIdentifier = page;
-        this.contents = pageData;
-        update();
+        switchPage(pageData);
         return true;
     }
 
@@ -347,16 +379,26 @@ public class KeyedMenuImpl extends AbstractMenu implements
     @Override
     public Map<Integer, MenuItem> pageItems() { return pageItems; }
 
+    @Override
+    public @NotNull Contents pageOverlay() {
+        return pageOverlay;
+    }
+
     public Pagination<String> copy() {
         var menu = type.inventoryType() == InventoryType.CHEST ? new KeyedMenuImpl(rows, pages.size(), title, modifiers, manager) : new KeyedMenuImpl(type, pages.size(), title, modifiers, manager);
         menu.setDynamicSizing(dynamicSizing);
-        menu.replaceContents(this.contents);
-        menu.actions = actions;
-        menu.slotActions = slotActions;
+        menu.actions = actions().copyFor(menu);
+        menu.slotActions = slotActions == null ? null : slotActions.clone();
+        menu.pageItems.putAll(pageItems);
+        pageItems.forEach(menu.pageOverlay::setItem);
         for (Map.Entry<String, BukkitContents> entry : pages.entrySet()) {
-            BukkitContents page = menu.getPage(entry.getKey());
-            page.replaceContents(entry.getValue());
+            MenuItem[] items = MenuBlueprint.capture(entry.getValue(), MenuBlueprint.length(this));
+            Contents page = new Contents(menu, items, MenuBlueprint.occupied(items));
+            page.setOverlay(menu.pageOverlay);
+            menu.pages.put(entry.getKey(), page);
         }
+        menu.pageIdentifier = pageIdentifier;
+        if (pageIdentifier != null) menu.contents = menu.pages.get(pageIdentifier);
         return menu;
     }
 
@@ -6,7 +6,9 @@ import me.flame.menus.builders.menus.MenuLayoutBuilder;
 import me.flame.menus.builders.menus.PaginatedBuilder;
 import me.flame.menus.menu.loader.PagedMenuLoader;
 import me.flame.menus.menu.pagination.IndexedPagination;
+import me.flame.menus.menu.pagination.LazyPages;
 import me.flame.menus.modifiers.Modifier;
+import me.flame.menus.modifiers.ModifierTable;
 import me.flame.menus.items.ItemResponse;
 import me.flame.menus.items.MenuItem;
 import me.flame.menus.menu.actions.Actions;
@@ -47,17 +49,24 @@ public interface Menu extends InventoryHolder, BukkitContents {
      * @param  repeatTime  the time interval between each execution of the task
      */
     default void updatePer(@NotNull Duration repeatTime) {
-        this.updatePer(repeatTime.toMillis() * 50);
+        this.updatePer(repeatTime.toMillis() / 50);
     }
 
     /**
      * Updates the menu every X ticks (repeatTime) with the delay of X ticks
+     * <p>
+     * The task is paused while nobody views the menu, and released by {@link #discard()}.
      *
      * @param  delay       the time interval before the first execution
      * @param  repeatTime  the time interval between each execution of the task
      */
     void updatePer(long delay, long repeatTime);
 
+    /**
+     * Releases the periodic tasks and timed refreshable items of the menu, call it once the menu is no longer used.
+     */
+    void discard();
+
     /**
      * Updates the menu every X ticks (repeatTime) with the delay of X ticks
      *
@@ -65,7 +74,7 @@ public interface Menu extends InventoryHolder, BukkitContents {
      * @param  repeatTime  the time interval between each execution of the task
      */
     default void updatePer(@NotNull Duration delay, @NotNull Duration repeatTime) {
-        this.updatePer(delay.toMillis() * 50, repeatTime.toMillis() * 50);
+        this.updatePer(delay.toMillis() / 50, repeatTime.toMillis() / 50);
     }
 
     /**
@@ -85,9 +94,30 @@ public interface Menu extends InventoryHolder, BukkitContents {
 
     /**
      * Update the inventory which recreates the items on default
+     * <p>
+     * If the menu is coalescing, this only requests a flush at the next tick.
      */
     void update();
 
+    /**
+     * Writes the pending changes into the inventory right away, even if the menu is coalescing.
+     */
+    void flushNow();
+
+    /**
+     * Merges every update and content change of a tick into a single flush, owned by {@link Menus}.
+     * @param coalescing whether to coalesce, turning it off flushes pending changes
+     */
+    void setCoalescing(boolean coalescing);
+
+    boolean isCoalescing();
+
+    /**
+     * Requests a flush at the next tick, requesting it again before it ran does nothing.
+     */
+    @ApiStatus.Internal
+    void requestFlush();
+
     void recreateInventory(boolean shouldRecreate);
 
     void recreateInventory();
@@ -216,6 +246,14 @@ public interface Menu extends InventoryHolder, BukkitContents {
      */
     boolean allModifiersAdded();
 
+    /**
+     * The modifiers compiled into a lookup table, compiled again once the modifiers changed,
+     * including changes made through {@link #getModifiers()}.
+     * @return the table
+     */
+    @ApiStatus.Internal
+    @NotNull ModifierTable modifierTable();
+
     /**
      * Get the title of the menu as a legacy String.
      * @return the title
@@ -339,6 +377,14 @@ public interface Menu extends InventoryHolder, BukkitContents {
     static Menu create(Menus manager, PagedMenuLoader loader) {
         var nextItem = loader.nextItem();
         var previousItem = loader.previousItem();
+        LazyPages lazyPages = loader.lazyPages();
+        if (lazyPages != null) {
+            IndexedPagination menu = loader.structure().type().inventoryType() == InventoryType.CHEST
+                    ? new PaginatedMenuImpl(loader.structure().rows(), lazyPages, loader.title(), EnumSet.noneOf(Modifier.class), nextItem.getValue(), previousItem.getValue(), nextItem.getKey(), previousItem.getKey(), loader.opener(), manager)
+                    : new PaginatedMenuImpl(loader.structure().type(), lazyPages, loader.title(), EnumSet.noneOf(Modifier.class), nextItem.getValue(), previousItem.getValue(), nextItem.getKey(), previousItem.getKey(), loader.opener(), manager);
+            loader.setup(menu);
+            return menu;
+        }
         IndexedPagination menu = loader.structure().type().inventoryType() == InventoryType.CHEST
                 ? new PaginatedMenuImpl(loader.structure().rows(), loader.pageCount(), loader.title(), EnumSet.noneOf(Modifier.class), nextItem.getValue(), previousItem.getValue(), nextItem.getKey(), previousItem.getKey(), manager)
                 : new PaginatedMenuImpl(loader.structure().type(), loader.pageCount(), loader.title(), EnumSet.noneOf(Modifier.class), nextItem.getValue(), previousItem.getValue(), nextItem.getKey(), previousItem.getKey(), manager);
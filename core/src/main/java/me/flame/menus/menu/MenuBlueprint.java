@@ -0,0 +1,273 @@
+package me.flame.menus.menu;
+
+import me.flame.menus.items.ItemResponse;
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.actions.Actions;
+import me.flame.menus.menu.contents.BukkitContents;
+import me.flame.menus.menu.contents.Contents;
+import me.flame.menus.menu.loader.MenuLoader;
+import me.flame.menus.menu.loader.PagedMenuLoader;
+import me.flame.menus.menu.opener.MenuOpener;
+import me.flame.menus.menu.pagination.IndexedPagination;
+import me.flame.menus.menu.pagination.LazyPages;
+import me.flame.menus.modifiers.Modifier;
+
+import net.kyori.adventure.text.Component;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * A compiled, immutable template of a menu.
+ * <p>
+ * Creating a menu from a blueprint copies nothing up front: the slots are shared until the menu first changes them,
+ * the actions are shared until the menu adds or removes one, and the inventory is only created once the menu is opened.
+ * <pre>{@code
+ *      MenuBlueprint shop = Menu.builder(menus).rows(3).title(title).blueprint(menu -> menu.setItem(13, item));
+ *      shop.create().open(player);
+ * }</pre>
+ * The menu items themselves are shared by every menu of the blueprint, replace them instead of editing them.
+ * Refreshable items and periodic tasks of the template aren't part of the blueprint.
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class MenuBlueprint {
+    private final Menus manager;
+    private final OpenedType type;
+    private final int rows, size;
+    private final Component title;
+    private final EnumSet<Modifier> modifiers;
+    private final MenuOpener opener;
+    private final boolean dynamicSizing;
+
+    private final MenuItem[] items;
+    private final long occupied;
+
+    private final Actions actions;
+    private final ItemResponse[] slotActions;
+
+    /**
+     * The slots of every page and the items shown on all of them, null if the template isn't paginated.
+     */
+    private final MenuItem[][] pages;
+    private final long[] pagesOccupied;
+    private final Map<Integer, MenuItem> pageItems;
+    private final MenuItem[] overlay;
+    private final long overlayOccupied;
+    private final MenuItem nextItem, previousItem;
+    private final int nextItemSlot, previousItemSlot;
+
+    /**
+     * Where a lazily paginated template gets its pages from, its pages are never captured.
+     */
+    private final LazyPages lazyPages;
+
+    private MenuBlueprint(@NotNull AbstractMenu template) {
+        this.manager = template.manager;
+        this.type = template.type;
+        this.rows = template.rows;
+        this.size = template.size;
+        this.title = template.title;
+        this.modifiers = EnumSet.copyOf(template.modifiers);
+        this.opener = template.opener;
+        this.dynamicSizing = template.dynamicSizing;
+
+        this.items = capture(template.contents, length(template));
+        this.occupied = occupied(items);
+
+        this.actions = template.actions == null ? null : template.actions.copyFor(null);
+        this.slotActions = template.slotActions == null ? null : template.slotActions.clone();
+
+        if (!(template instanceof PaginatedMenuImpl paginated)) {
+            this.pages = null;
+            this.pagesOccupied = null;
+            this.pageItems = Collections.emptyMap();
+            this.overlay = null;
+            this.overlayOccupied = 0;
+            this.nextItem = this.previousItem = null;
+            this.nextItemSlot = this.previousItemSlot = -1;
+            this.lazyPages = null;
+            return;
+        }
+
+        this.lazyPages = paginated.lazyPages;
+        final int pageCount = lazyPages == null ? paginated.pages.size() : 0;
+        this.pages = new MenuItem[pageCount][];
+        this.pagesOccupied = new long[pageCount];
+        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+            this.pages[pageIndex] = capture(paginated.getPage(pageIndex), length(template));
+            this.pagesOccupied[pageIndex] = occupied(pages[pageIndex]);
+        }
+        this.pageItems = Collections.unmodifiableMap(new LinkedHashMap<>(paginated.pageItems()));
+        this.overlay = capture(paginated.pageOverlay, length(template));
+        this.overlayOccupied = occupied(overlay);
+        this.nextItem = paginated.nextItem;
+        this.previousItem = paginated.previousItem;
+        this.nextItemSlot = paginated.nextItemSlot;
+        this.previousItemSlot = paginated.previousItemSlot;
+    }
+
+    /**
+     * Compiles the menu into a blueprint, later changes to the menu aren't reflected.
+     * @param menu a normal or paginated menu
+     * @return the blueprint
+     */
+    @Contract("_ -> new")
+    public static @NotNull MenuBlueprint of(@NotNull Menu menu) {
+        if (!(menu instanceof MenuImpl) && !(menu instanceof PaginatedMenuImpl)) {
+            throw new IllegalArgumentException("Only normal and paginated menus can be compiled into a blueprint\nMenu: " + menu.getClass().getSimpleName() + "\nFix: Build the template with MenuBuilder#normal or PaginatedBuilder#build");
+        }
+        return new MenuBlueprint((AbstractMenu) menu);
+    }
+
+    /**
+     * Loads the menu once and compiles it into a blueprint.
+     * @param manager the menus the loaded menus belong to
+     * @param loader the loader
+     * @return the blueprint
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull MenuBlueprint of(@NotNull Menus manager, @NotNull MenuLoader loader) {
+        return of(Menu.create(manager, loader));
+    }
+
+    /**
+     * Loads the paginated menu once and compiles it into a blueprint.
+     * @param manager the menus the loaded menus belong to
+     * @param loader the loader
+     * @return the blueprint
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull MenuBlueprint of(@NotNull Menus manager, @NotNull PagedMenuLoader loader) {
+        return of(Menu.create(manager, loader));
+    }
+
+    /**
+     * Creates a menu from the blueprint, paginated if the template was.
+     * @return the new menu
+     */
+    @Contract(" -> new")
+    public @NotNull Menu create() {
+        return pages == null ? new MenuImpl(this) : new PaginatedMenuImpl(this);
+    }
+
+    /**
+     * Creates a paginated menu from the blueprint.
+     * @return the new menu
+     * @throws IllegalStateException if the template wasn't paginated
+     */
+    @Contract(" -> new")
+    public @NotNull IndexedPagination createPaginated() {
+        if (pages == null) throw new IllegalStateException("The blueprint was compiled from a normal menu\nFix: Use MenuBlueprint#create");
+        return new PaginatedMenuImpl(this);
+    }
+
+    public boolean isPaginated() {
+        return pages != null;
+    }
+
+    public int getPageCount() {
+        if (lazyPages != null) return lazyPages.pageCount().getAsInt();
+        return pages == null ? 1 : pages.length;
+    }
+
+    public @NotNull OpenedType type() {
+        return type;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Component title() {
+        return title;
+    }
+
+    Menus manager() {
+        return manager;
+    }
+
+    MenuOpener opener() {
+        return opener;
+    }
+
+    boolean isDynamicSizing() {
+        return dynamicSizing;
+    }
+
+    EnumSet<Modifier> modifiers() {
+        return EnumSet.copyOf(modifiers);
+    }
+
+    ItemResponse[] slotActions() {
+        return slotActions == null ? null : slotActions.clone();
+    }
+
+    Actions actionsFor(Menu menu) {
+        return actions == null ? null : actions.copyFor(menu);
+    }
+
+    Contents contentsFor(Menu menu) {
+        return new Contents(menu, items, occupied);
+    }
+
+    Contents pageFor(Menu menu, int pageIndex) {
+        return new Contents(menu, pages[pageIndex], pagesOccupied[pageIndex]);
+    }
+
+    Contents overlayFor(Menu menu) {
+        return new Contents(menu, overlay, overlayOccupied);
+    }
+
+    LazyPages lazyPages() {
+        return lazyPages;
+    }
+
+    Map<Integer, MenuItem> pageItems() {
+        return pageItems;
+    }
+
+    MenuItem nextItem() {
+        return nextItem;
+    }
+
+    MenuItem previousItem() {
+        return previousItem;
+    }
+
+    int nextItemSlot() {
+        return nextItemSlot;
+    }
+
+    int previousItemSlot() {
+        return previousItemSlot;
+    }
+
+    /**
+     * Copies the own slots of the contents into a new array, layers like the page items aren't included.
+     */
+    static MenuItem @NotNull [] capture(BukkitContents contents, int length) {
+        MenuItem[] captured = new MenuItem[length];
+        if (contents == null) return captured;
+        contents.indexed((item, slot) -> {
+            if (slot < length) captured[slot] = item;
+        });
+        return captured;
+    }
+
+    static long occupied(MenuItem @NotNull [] items) {
+        long occupied = 0;
+        for (int slot = 0; slot < items.length; slot++) if (items[slot] != null) occupied |= 1L << slot;
+        return occupied;
+    }
+
+    static int length(@NotNull Menu menu) {
+        return Math.max(menu.size(), menu.getType().maxSize());
+    }
+}
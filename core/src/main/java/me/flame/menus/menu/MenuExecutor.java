@@ -0,0 +1,185 @@
+package me.flame.menus.menu;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The executor async click actions and async actions run on.
+ * <p>
+ * It is a bounded pool of daemon threads owned by {@link Menus}, so a burst of slow handlers
+ * can't starve the common pool. Every player can only have a limited amount of tasks in flight,
+ * clicks past that limit are dropped.
+ * <p>
+ * Results are handed back to the server thread with {@link #thenOnMainThread(CompletableFuture, Consumer)}:
+ * <pre>{@code
+ *      var executor = menus.getExecutor();
+ *      executor.thenOnMainThread(executor.supply(player, () -> database.load(player)), data -> menu.update());
+ * }</pre>
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class MenuExecutor implements Executor {
+    public static final int DEFAULT_THREADS = 4, DEFAULT_QUEUE_CAPACITY = 256, DEFAULT_PLAYER_LIMIT = 4;
+
+    private static final AtomicInteger POOL_IDS = new AtomicInteger();
+
+    private final Plugin plugin;
+    private final ThreadPoolExecutor pool;
+    private final int playerLimit;
+    private final Map<UUID, Integer> inFlight = new ConcurrentHashMap<>();
+    private final Executor mainThread;
+
+    /**
+     * @param plugin the plugin the main thread continuations are scheduled with
+     * @param threads the maximum amount of threads
+     * @param queueCapacity the amount of tasks that can wait for a thread before new ones are rejected
+     * @param playerLimit the amount of tasks a single player can have in flight
+     */
+    public MenuExecutor(@NotNull Plugin plugin, int threads, int queueCapacity, int playerLimit) {
+        if (threads <= 0 || queueCapacity <= 0 || playerLimit <= 0) {
+            throw new IllegalArgumentException("Threads, queue capacity and player limit must be positive\nThreads: " + threads + ", queue capacity: " + queueCapacity + ", player limit: " + playerLimit + "\nFix: Use values above 0");
+        }
+        this.plugin = plugin;
+        this.playerLimit = playerLimit;
+        this.mainThread = task -> Bukkit.getScheduler().runTask(plugin, task);
+
+        final String prefix = "woody-menus-" + POOL_IDS.incrementAndGet() + "-async-";
+        final AtomicInteger threadIds = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    public MenuExecutor(@NotNull Plugin plugin) {
+        this(plugin, DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, DEFAULT_PLAYER_LIMIT);
+    }
+
+    /**
+     * Runs the task on the pool, not counted against any player.
+     * @param task the task
+     * @throws RejectedExecutionException if the pool is saturated or shut down
+     */
+    @Override
+    public void execute(@NotNull Runnable task) {
+        pool.execute(task);
+    }
+
+    /**
+     * Runs the task on the pool, not counted against any player.
+     * @param task the task
+     * @return whether the task was accepted, a rejected task is dropped
+     */
+    public boolean tryExecute(@NotNull Runnable task) {
+        try {
+            pool.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            dropped();
+            return false;
+        }
+    }
+
+    /**
+     * Runs the task on the pool if the player is below their in-flight limit.
+     * @param player the player the task is for
+     * @param task the task
+     * @return whether the task was accepted
+     */
+    public boolean execute(@NotNull HumanEntity player, @NotNull Runnable task) {
+        final UUID id = player.getUniqueId();
+        if (!acquire(id)) return false;
+        try {
+            pool.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    release(id);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            release(id);
+            dropped();
+            return false;
+        }
+    }
+
+    /**
+     * Computes a value on the pool, counted against the in-flight limit of the player.
+     * @param player the player the task is for
+     * @param task the task
+     * @return the future, failed with a {@link RejectedExecutionException} if the player is over their limit
+     * @param <T> the result
+     */
+    public <T> @NotNull CompletableFuture<T> supply(@NotNull HumanEntity player, @NotNull Supplier<T> task) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final boolean accepted = execute(player, () -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        if (!accepted) future.completeExceptionally(new RejectedExecutionException("Too many async tasks in flight for " + player.getName()));
+        return future;
+    }
+
+    /**
+     * Applies the result of the future on the server thread, on the tick after it completes.
+     * @param future the future
+     * @param action what to do with the result
+     * @return a future completing after the action ran
+     * @param <T> the result
+     */
+    public <T> @NotNull CompletableFuture<Void> thenOnMainThread(@NotNull CompletableFuture<T> future, @NotNull Consumer<? super T> action) {
+        return future.thenAcceptAsync(action, mainThread);
+    }
+
+    /**
+     * @return an executor running tasks on the server thread on the next tick
+     */
+    public @NotNull Executor mainThread() {
+        return mainThread;
+    }
+
+    public int getPlayerLimit() {
+        return playerLimit;
+    }
+
+    public int getInFlight(@NotNull HumanEntity player) {
+        return inFlight.getOrDefault(player.getUniqueId(), 0);
+    }
+
+    /**
+     * Stops accepting tasks, already queued tasks still run.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private boolean acquire(UUID id) {
+        if (inFlight.merge(id, 1, Integer::sum) <= playerLimit) return true;
+        release(id);
+        return false;
+    }
+
+    private void release(UUID id) {
+        inFlight.computeIfPresent(id, (key, count) -> count <= 1 ? null : count - 1);
+    }
+
+    private void dropped() {
+        plugin.getLogger().warning("Menu async executor is saturated or shut down, dropping a task");
+    }
+}
@@ -15,7 +15,6 @@ import net.kyori.adventure.text.Component;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.HumanEntity;
-import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
@@ -34,16 +33,36 @@ public final class MenuImpl extends AbstractMenu implements
         Menu, RandomAccess, java.io.Serializable, InventoryHolder, BukkitContents {
     public MenuImpl(int rows, @NotNull Component title, @NotNull EnumSet<Modifier> modifiers, Menus manager, MenuOpener opener) {
         super(rows * 9, rows, title, modifiers, opener, manager);
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
         this.contents = new Contents(this);
     }
 
     public MenuImpl(@NotNull OpenedType type, @NotNull Component title, @NotNull EnumSet<Modifier> modifiers, Menus manager, MenuOpener opener) {
         super(type, title, modifiers, opener, manager);
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
         this.contents = new Contents(this);
     }
 
+    /**
+     * Creates the menu with contents made for it, instead of empty contents that are replaced right after.
+     */
+    MenuImpl(int rows, @NotNull Component title, @NotNull EnumSet<Modifier> modifiers, Menus manager, MenuOpener opener, @NotNull Function<Menu, BukkitContents> contents) {
+        super(rows * 9, rows, title, modifiers, opener, manager);
+        this.inventory = createInventory();
+        this.contents = contents.apply(this);
+    }
+
+    MenuImpl(@NotNull OpenedType type, @NotNull Component title, @NotNull EnumSet<Modifier> modifiers, Menus manager, MenuOpener opener, @NotNull Function<Menu, BukkitContents> contents) {
+        super(type, title, modifiers, opener, manager);
+        this.inventory = createInventory();
+        this.contents = contents.apply(this);
+    }
+
+    MenuImpl(@NotNull MenuBlueprint blueprint) {
+        super(blueprint);
+        this.contents = blueprint.contentsFor(this);
+    }
+
     public MenuImpl(int rows, @NotNull Component title, @NotNull EnumSet<Modifier> modifiers, Menus manager) {
         this(rows, title, modifiers, manager, MenuOpener.DEFAULT);
     }
@@ -92,15 +111,9 @@ public final class MenuImpl extends AbstractMenu implements
         return pagination;
     }
 
-    @Override
-    public void updatePer(long delay, long repeatTime) {
-        if (repeatTime > 0) Bukkit.getScheduler().runTaskTimer(manager.getPlugin(), this::update, delay, repeatTime);
-        throw new IllegalThreadStateException("Synchronously calling an update method that has no delay or repeat delay. \nGoal: This prevents blocking because the delay is too low.");
-    }
-
     @Override
     public List<HumanEntity> getViewers() {
-        return inventory.getViewers();
+        return viewers();
     }
 
     @Override
@@ -116,6 +129,11 @@ public final class MenuImpl extends AbstractMenu implements
         return this.contents.getItem(i);
     }
 
+    @Override
+    public @Nullable MenuItem itemAt(int i) {
+        return this.contents.itemAt(i);
+    }
+
     @Override
     public boolean hasItem(int slot) {
         return this.contents.hasItem(slot);
@@ -163,39 +181,29 @@ public final class MenuImpl extends AbstractMenu implements
         return this.contents.removeItem(index);
     }
 
-    @Override
-    public void update() {
-        updating = true;
-        updatePlayerInventories(this.inventory, getViewers(), contents, (player) -> ((Player) player).updateInventory());
-        updating = false;
-    }
-
     @Override
     public void updateTitle(Component title) {
         Inventory oldInventory = inventory;
-        this.inventory = opener.open(manager, this, this.structure());
+        this.title = title;
+        if (oldInventory == null) return;
+        this.inventory = createInventory();
         updating = true;
-        updatePlayerInventories(oldInventory, getViewers(), contents, player -> player.openInventory(this.inventory));
+        updatePlayerInventories(this.inventory, oldInventory.getViewers(), contents, player -> player.openInventory(this.inventory));
         updating = false;
     }
 
     static void updatePlayerInventories(Inventory inventory, @NotNull List<HumanEntity> viewers, @NotNull BukkitContents contents, Consumer<HumanEntity> entityPredicate) {
         contents.recreateItems(inventory);
         List<HumanEntity> snapshot = new ArrayList<>(viewers);
-
-        // debug remove
-        Bukkit.getLogger().info("Snapshot size: " + snapshot);
-
-        if (!snapshot.isEmpty()) snapshot.forEach((e) -> {
-            Bukkit.getLogger().info("Name: " + e.getName());
-            entityPredicate.accept(e);
-        });
+        if (!snapshot.isEmpty()) snapshot.forEach(entityPredicate);
     }
 
     @Override
     public void open(@NotNull HumanEntity entity) {
         if (!entity.isSleeping()) Bukkit.getScheduler().runTask(manager.getPlugin(), () -> {
-            this.update();
+            Inventory inventory = getInventory();
+            // rendered before the viewer sees it, even when updates are coalesced
+            this.flushNow();
             entity.openInventory(inventory);
         });
     }
@@ -235,6 +243,11 @@ public final class MenuImpl extends AbstractMenu implements
         this.contents.addRefreshableItem(index, item);
     }
 
+    @Override
+    public void addRefreshableItem(final int index, final Supplier<MenuItem> item, final long intervalTicks) {
+        this.contents.addRefreshableItem(index, item, intervalTicks);
+    }
+
     @Override
     public void removeRefreshableItem(final int index) {
         this.contents.removeRefreshableItem(index);
@@ -268,7 +281,7 @@ public final class MenuImpl extends AbstractMenu implements
         if (rows >= type.maxRows()) return;
         rows++;
         this.size = rows * type.maxColumns();
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
     }
 
     @Override
@@ -276,7 +289,7 @@ public final class MenuImpl extends AbstractMenu implements
         if (rows >= type.maxRows()) return;
         rows += growRows;
         this.size = rows * type.maxColumns();
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
     }
 
     public void recreateInventory() { recreateInventory(true); }
@@ -286,12 +299,27 @@ public final class MenuImpl extends AbstractMenu implements
         this.contents.replaceContents(items);
     }
 
+    /**
+     * Creates a menu for a single viewer which shares the actions and slot actions of this menu.
+     * @param contents creates the contents of the view from the view itself
+     * @return the view
+     * @see me.flame.menus.menu.view.MenuView
+     */
+    @ApiStatus.Internal
+    public @NotNull MenuImpl createView(@NotNull Function<Menu, BukkitContents> contents) {
+        MenuImpl view = type.inventoryType() == InventoryType.CHEST ? new MenuImpl(rows, title, modifiers, manager, opener, contents) : new MenuImpl(type, title, modifiers, manager, opener, contents);
+        view.actions = actions();
+        view.slotActions = slotActions;
+        return view;
+    }
+
     public @NotNull Menu copy() {
-        MenuImpl menu = type.inventoryType() == InventoryType.CHEST ? new MenuImpl(rows, title, modifiers, manager, opener) : new MenuImpl(type, title, modifiers, manager, opener);
+        MenuItem[] items = MenuBlueprint.capture(contents, MenuBlueprint.length(this));
+        Function<Menu, BukkitContents> copied = copy -> new Contents(copy, items, MenuBlueprint.occupied(items));
+        MenuImpl menu = type.inventoryType() == InventoryType.CHEST ? new MenuImpl(rows, title, modifiers, manager, opener, copied) : new MenuImpl(type, title, modifiers, manager, opener, copied);
         menu.setDynamicSizing(dynamicSizing);
-        menu.replaceContents(contents);
-        menu.actions = actions;
-        menu.slotActions = slotActions;
+        menu.actions = actions().copyFor(menu);
+        menu.slotActions = slotActions == null ? null : slotActions.clone();
         return menu;
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package me.flame.menus.menu;
 import me.flame.menus.items.MenuItem;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -15,11 +16,16 @@ public class MenuLayout {
     @NotNull
     private final Map<Character, MenuItem> mappedButtons;
 
+    @NotNull
+    private final CompiledLayout compiled;
+
     public MenuLayout(final @NotNull String[] patterns, final int rows, final @NotNull Map<Character, MenuItem> mappedButtons) {
         validateData(patterns, rows);
-        this.patterns = patterns;
+        // copied, the layout is compiled once and must not change behind it
+        this.patterns = patterns.clone();
         this.rows = rows;
-        this.mappedButtons = mappedButtons;
+        this.mappedButtons = new HashMap<>(mappedButtons);
+        this.compiled = CompiledLayout.compile(this.patterns, this.mappedButtons);
     }
 
 
@@ -33,11 +39,19 @@ public class MenuLayout {
         }
     }
 
+    /**
+     * The layout resolved into slots when it was created, see {@link CompiledLayout}.
+     * @return the compiled layout
+     */
+    public @NotNull CompiledLayout compiled() {
+        return compiled;
+    }
+
     public MenuItem getMappedItem(int row, int column) {
-        Objects.checkFromToIndex(1, rows, row);
-        Objects.checkFromToIndex(1, 9, column);
+        Objects.checkIndex(row, rows);
+        Objects.checkIndex(column, 9);
         return Objects.requireNonNull(
-                this.mappedButtons.get(patterns[row].charAt(column)),
+                this.compiled.itemAt(row * 9 + column),
                 "This shall not come out null."
         );
     }
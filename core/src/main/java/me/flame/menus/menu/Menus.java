@@ -1,19 +1,34 @@
 package me.flame.menus.menu;
 
+import com.google.common.collect.MapMaker;
+
 import me.flame.menus.items.ClickSound;
+import me.flame.menus.menu.view.MenuView;
+import me.flame.menus.metrics.MenuMetrics;
 import me.flame.menus.patterns.IterationPattern;
+import me.flame.menus.scheduler.MenuTasks;
+import me.flame.menus.scheduler.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-// TODO: add per-player views
 @SuppressWarnings("unused")
 public final class Menus {
     public static final EnumSet<InventoryType> TYPES = Stream.of(InventoryType.values())
@@ -29,6 +44,17 @@ public final class Menus {
     private final Map<InventoryType, Map.Entry<String, OpenedType>> types = new EnumMap<>(InventoryType.class);
     private final Map<Class<?>, IterationPattern> patterns = new HashMap<>(5);
 
+    /**
+     * Live inventories of the menus, compared by identity.
+     * Both sides are weak since every inventory holds its menu, and the menu holds the inventory.
+     */
+    private final Map<Inventory, Menu> inventories = new MapMaker().weakKeys().weakValues().makeMap();
+
+    /**
+     * Menu views whose per-player views are dropped when the player quits.
+     */
+    private final Set<MenuView> views = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+
     public ClickSound getGlobalItemClickSound() {
         return globalItemClickSound;
     }
@@ -39,11 +65,105 @@ public final class Menus {
 
     private ClickSound globalItemClickSound;
 
+    private ClickValidation clickValidation = ClickValidation.RENDERED;
+
+    public ClickValidation getClickValidation() {
+        return clickValidation;
+    }
+
+    /**
+     * Changes how clicks are checked against the item in the slot, {@link ClickValidation#RENDERED} by default.
+     * @param clickValidation the mode
+     */
+    public void setClickValidation(final ClickValidation clickValidation) {
+        this.clickValidation = Objects.requireNonNull(clickValidation);
+    }
+
+    private MenuExecutor executor;
+
+    private final MenuMetrics metrics = new MenuMetrics();
+
+    private TimingWheel refreshWheel;
+
+    private final MenuTasks tasks;
+
+    /**
+     * The periodic tasks of the menus, they only run while their menu has viewers.
+     * @return the tasks
+     */
+    public MenuTasks getTasks() {
+        return tasks;
+    }
+
+    /**
+     * The timing wheel every timed refreshable item of these menus is scheduled on.
+     * @return the wheel
+     */
+    public TimingWheel getRefreshWheel() {
+        TimingWheel wheel = this.refreshWheel;
+        return wheel == null ? (this.refreshWheel = new TimingWheel(plugin)) : wheel;
+    }
+
+    /**
+     * Coalescing menus waiting for their flush, all of them are flushed by one task per tick.
+     */
+    private final Queue<Menu> pendingFlushes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * The latency histograms and counters of the menus, disabled until {@link MenuMetrics#setEnabled(boolean)}.
+     * @return the metrics
+     */
+    public MenuMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * The executor async click actions and async actions run on, created with the defaults on first use.
+     * @return the executor
+     */
+    public MenuExecutor getExecutor() {
+        MenuExecutor current = this.executor;
+        return current == null ? (this.executor = new MenuExecutor(plugin)) : current;
+    }
+
+    /**
+     * Replaces the async executor, the previous one is shut down after its queued tasks.
+     * @param threads the maximum amount of threads
+     * @param queueCapacity the amount of tasks that can wait for a thread
+     * @param playerLimit the amount of tasks a single player can have in flight
+     */
+    public void configureExecutor(int threads, int queueCapacity, int playerLimit) {
+        MenuExecutor previous = this.executor;
+        this.executor = new MenuExecutor(plugin, threads, queueCapacity, playerLimit);
+        if (previous != null) previous.shutdown();
+    }
+
     public Menus(Plugin plugin) {
         this.plugin = plugin;
+        this.tasks = new MenuTasks(plugin);
         Bukkit.getPluginManager().registerEvents(new MenuListeners(this), plugin);
     }
 
+    @ApiStatus.Internal
+    public void registerView(MenuView view) {
+        views.add(view);
+    }
+
+    @ApiStatus.Internal
+    public void unregisterView(MenuView view) {
+        views.remove(view);
+    }
+
+    /**
+     * Drops the views a player has in every menu view, called when the player quits.
+     * @param player the player
+     */
+    @ApiStatus.Internal
+    public void removeViews(UUID player) {
+        for (MenuView view : views) view.removeView(player);
+    }
+
     public void putType(final OpenedType type) {
         if (!TYPES.contains(type.inventoryType())) {
             throw new IllegalArgumentException("Inventory type that was provided is not creatable: " + type.inventoryType().name());
@@ -66,4 +186,39 @@ public final class Menus {
     public IterationPattern getPattern(Class<IterationPattern> pattern) {
         return this.patterns.get(pattern);
     }
+
+    /**
+     * Flushes the menu together with every other coalescing menu on the next tick.
+     * @param menu the menu
+     */
+    @ApiStatus.Internal
+    public void scheduleFlush(Menu menu) {
+        pendingFlushes.add(menu);
+        if (flushScheduled.compareAndSet(false, true)) Bukkit.getScheduler().runTask(plugin, this::flushPending);
+    }
+
+    private void flushPending() {
+        flushScheduled.set(false);
+        Menu menu;
+        while ((menu = pendingFlushes.poll()) != null) menu.flushNow();
+    }
+
+    /**
+     * Registers an inventory opened for a menu.
+     * @param inventory the inventory
+     * @param menu the menu it belongs to
+     */
+    @ApiStatus.Internal
+    public void register(Inventory inventory, Menu menu) {
+        if (inventory != null) this.inventories.put(inventory, menu);
+    }
+
+    /**
+     * Gets the menu the inventory was opened for, this never asks the inventory for its holder.
+     * @param inventory the inventory
+     * @return the menu or null if the inventory isn't a menu
+     */
+    public @Nullable Menu getMenu(Inventory inventory) {
+        return inventory == null ? null : this.inventories.get(inventory);
+    }
 }
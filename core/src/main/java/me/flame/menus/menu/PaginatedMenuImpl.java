@@ -8,9 +8,11 @@ import me.flame.menus.events.PageChangeEvent;
 import me.flame.menus.items.MenuItem;
 import me.flame.menus.menu.contents.Contents;
 import me.flame.menus.menu.opener.MenuOpener;
+import me.flame.menus.metrics.MenuMetrics;
 import me.flame.menus.modifiers.Modifier;
 
 import me.flame.menus.menu.pagination.IndexedPagination;
+import me.flame.menus.menu.pagination.LazyPages;
 import net.kyori.adventure.text.Component;
 
 import org.bukkit.Bukkit;
@@ -42,17 +44,27 @@ public class PaginatedMenuImpl extends AbstractMenu implements
     @NotNull
     final Map<Integer, BukkitContents> pages;
     private Integer pageIdentifier = 0;
-    private int nextItemSlot = -1;
+    int nextItemSlot = -1;
 
     @Override
     public Integer getPageIdentifier() {
         return pageIdentifier;
     }
 
-    private int previousItemSlot = -1;
+    int previousItemSlot = -1;
 
     private final Map<Integer, MenuItem> pageItems;
-    private MenuItem nextItem, previousItem;
+    MenuItem nextItem, previousItem;
+
+    /**
+     * The page items, shown over whichever page is visible instead of being copied into every page.
+     */
+    final Contents pageOverlay;
+
+    /**
+     * Builds the pages on demand when set, {@link #pages} then only caches the pages viewed last.
+     */
+    final LazyPages lazyPages;
 
     /**
      * Adds a blank page to the menu.
@@ -60,6 +72,7 @@ public class PaginatedMenuImpl extends AbstractMenu implements
      */
     public int addPage(BukkitContents data) {
         Objects.requireNonNull(data);
+        if (lazyPages != null) throw new IllegalStateException("Pages can't be added to a lazily paginated menu\nFix: Let the page factory build the page and raise the page count");
         this.pages.put(pages.size(), data);
         setPageItems(data);
         return pages.size();
@@ -67,8 +80,12 @@ public class PaginatedMenuImpl extends AbstractMenu implements
 
     public void setPageItems(BukkitContents items) {
         Objects.requireNonNull(items);
-        if (pageItems.isEmpty()) return;
-        for (Map.Entry<Integer, MenuItem> entry : this.pageItems.entrySet()) items.setItem(entry.getKey(), entry.getValue());
+        items.setOverlay(pageOverlay);
+    }
+
+    @Override
+    public @NotNull Contents pageOverlay() {
+        return pageOverlay;
     }
 
     /**
@@ -78,9 +95,11 @@ public class PaginatedMenuImpl extends AbstractMenu implements
      */
     public PaginatedMenuImpl(final int rows, final int pages, Component title, EnumSet<Modifier> modifiers, MenuItem nextItem, MenuItem previousItem, int nextItemSlot, int previousItemSlot, MenuOpener opener, Menus menus) {
         super(rows * 9, rows, title, modifiers, opener, menus);
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
         this.pageItems = new LinkedConcurrentCache<>(this.rows * 9);
+        this.pageOverlay = new Contents(this);
         this.pages = new LinkedConcurrentCache<>(pages);
+        this.lazyPages = null;
         paginationInitialization(MenuType.CHEST, pages, nextItem, previousItem, nextItemSlot, previousItemSlot);
     }
 
@@ -89,9 +108,11 @@ public class PaginatedMenuImpl extends AbstractMenu implements
      */
     public PaginatedMenuImpl(OpenedType type, final int pages, Component title, EnumSet<Modifier> modifiers, MenuItem nextItem, MenuItem previousItem, int nextItemSlot, int previousItemSlot, MenuOpener opener, Menus menus) {
         super(type, title, modifiers, opener, menus);
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
         this.pageItems = new LinkedConcurrentCache<>(type.maxSize());
+        this.pageOverlay = new Contents(this);
         this.pages = new LinkedConcurrentCache<>(pages);
+        this.lazyPages = null;
         paginationInitialization(type, pages, nextItem, previousItem, nextItemSlot, previousItemSlot);
     }
 
@@ -111,6 +132,59 @@ public class PaginatedMenuImpl extends AbstractMenu implements
         this(type, pages, title, modifiers, nextItem, previousItem, nextItemSlot, previousItemSlot, MenuOpener.DEFAULT, menus);
     }
 
+    /**
+     * Creates a paginated menu building its pages on demand, see {@link LazyPages}.
+     *
+     * @param rows The page size.
+     */
+    public PaginatedMenuImpl(final int rows, @NotNull LazyPages lazyPages, Component title, EnumSet<Modifier> modifiers, MenuItem nextItem, MenuItem previousItem, int nextItemSlot, int previousItemSlot, MenuOpener opener, Menus menus) {
+        super(rows * 9, rows, title, modifiers, opener, menus);
+        this.inventory = createInventory();
+        this.pageItems = new LinkedConcurrentCache<>(this.rows * 9);
+        this.pageOverlay = new Contents(this);
+        this.lazyPages = Objects.requireNonNull(lazyPages);
+        this.pages = pageCache(lazyPages);
+        lazyInitialization(nextItem, previousItem, nextItemSlot, previousItemSlot);
+    }
+
+    /**
+     * Creates a paginated menu building its pages on demand, see {@link LazyPages}.
+     */
+    public PaginatedMenuImpl(OpenedType type, @NotNull LazyPages lazyPages, Component title, EnumSet<Modifier> modifiers, MenuItem nextItem, MenuItem previousItem, int nextItemSlot, int previousItemSlot, MenuOpener opener, Menus menus) {
+        super(type, title, modifiers, opener, menus);
+        this.inventory = createInventory();
+        this.pageItems = new LinkedConcurrentCache<>(type.maxSize());
+        this.pageOverlay = new Contents(this);
+        this.lazyPages = Objects.requireNonNull(lazyPages);
+        this.pages = pageCache(lazyPages);
+        lazyInitialization(nextItem, previousItem, nextItemSlot, previousItemSlot);
+    }
+
+    PaginatedMenuImpl(@NotNull MenuBlueprint blueprint) {
+        super(blueprint);
+        this.pageItems = new LinkedConcurrentCache<>(size);
+        this.pageItems.putAll(blueprint.pageItems());
+        this.pageOverlay = blueprint.overlayFor(this);
+        this.lazyPages = blueprint.lazyPages();
+        if (lazyPages != null) {
+            this.pages = pageCache(lazyPages);
+            this.contents = firstPage();
+        } else {
+            final int pageCount = blueprint.getPageCount();
+            this.pages = new LinkedConcurrentCache<>(pageCount);
+            for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+                BukkitContents page = blueprint.pageFor(this, pageIndex);
+                page.setOverlay(pageOverlay);
+                this.pages.put(pageIndex, page);
+            }
+            this.contents = pages.get(0);
+        }
+        this.nextItemSlot = blueprint.nextItemSlot();
+        this.previousItemSlot = blueprint.previousItemSlot();
+        this.nextItem = blueprint.nextItem();
+        this.previousItem = blueprint.previousItem();
+    }
+
     private void paginationInitialization(OpenedType type, int pageCount, MenuItem nextItem, MenuItem previousItem, int nextItemSlot, int previousItemSlot) {
         Contents items = new Contents(this);
         this.addPage(items);
@@ -120,6 +194,55 @@ public class PaginatedMenuImpl extends AbstractMenu implements
         for (int pageIndex = 1; pageIndex < pageCount; pageIndex++) this.addPage(new Contents(this));
     }
 
+    private void lazyInitialization(MenuItem nextItem, MenuItem previousItem, int nextItemSlot, int previousItemSlot) {
+        this.setNextPageItem(nextItemSlot, nextItem);
+        this.setPreviousPageItem(previousItemSlot, previousItem);
+        this.contents = firstPage();
+    }
+
+    /**
+     * The first page, or an empty one if the factory has no pages.
+     */
+    private BukkitContents firstPage() {
+        BukkitContents first = getPage(0);
+        if (first != null) return first;
+        Contents empty = new Contents(this);
+        empty.setOverlay(pageOverlay);
+        return empty;
+    }
+
+    /**
+     * Keeps the pages viewed last, never dropping the visible page.
+     */
+    private Map<Integer, BukkitContents> pageCache(LazyPages lazyPages) {
+        final int cachedPages = lazyPages.cachedPages();
+        return Collections.synchronizedMap(new LinkedHashMap<Integer, BukkitContents>(cachedPages + 1, 1.0f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BukkitContents> eldest) {
+                if (size() <= cachedPages) return false;
+                if (eldest.getValue() != contents) {
+                    eldest.getValue().release();
+                    return true;
+                }
+
+                // the visible page stays, the page viewed longest ago after it goes instead,
+                // but never the page that was just inserted, which is the last one
+                for (Iterator<BukkitContents> iterator = values().iterator(); iterator.hasNext(); ) {
+                    BukkitContents page = iterator.next();
+                    if (!iterator.hasNext()) break;
+                    if (page == contents) continue;
+                    iterator.remove();
+                    page.release();
+                    break;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * @return the pages, a lazily paginated menu only returns the pages it currently caches
+     */
     public List<BukkitContents> pages() { return List.copyOf(pages.values()); }
 
     @Override
@@ -131,37 +254,55 @@ public class PaginatedMenuImpl extends AbstractMenu implements
     public void setNextPageItem(int nextItemSlot, MenuItem nextItem) {
         this.nextItemSlot = nextItemSlot;
         this.nextItem = nextItem;
-        this.pageItems.put(nextItemSlot, nextItem);
-        this.setItem(nextItemSlot, nextItem);
-        nextItem.setClickAction((player, event) -> this.next());
+        this.setPageItem(nextItemSlot, nextItem);
+        nextItem.setClickAction((player, event) -> clicked(event).next());
         //nextItem.setVisiblity(menu -> menu instanceof PaginatedMenuImpl && ((PaginatedMenuImpl) menu).getCurrentPageNumber() != pages.size());
     }
 
     public void setPreviousPageItem(int previousItemSlot, MenuItem previousItem) {
         this.previousItemSlot = previousItemSlot;
         this.previousItem = previousItem;
-        this.pageItems.put(previousItemSlot, previousItem);
-        this.setItem(previousItemSlot, previousItem);
-        previousItem.setClickAction((player, event) -> this.previous());
+        this.setPageItem(previousItemSlot, previousItem);
+        previousItem.setClickAction((player, event) -> clicked(event).previous());
         //previousItem.setVisiblity(menu -> menu instanceof PaginatedMenuImpl && ((PaginatedMenuImpl) menu).getCurrentPageNumber() != 0);
     }
 
     @Override
-    public void updatePer(final long delay, final long repeatTime) {
-        if (repeatTime > 0) Bukkit.getScheduler().runTaskTimer(manager.getPlugin(), this::update, delay, repeatTime);
-        throw new IllegalThreadStateException("Synchronously calling an update method that has no delay or repeat delay. \nGoal: This prevents blocking because the delay is too low.");
+    public void discard() {
+        super.discard();
+        pages.values().forEach(BukkitContents::release);
+    }
+
+    /**
+     * The page items are shared with every copy of the menu, so they look up the menu the click happened in.
+     */
+    private IndexedPagination clicked(InventoryClickEvent event) {
+        return manager.getMenu(event.getInventory()) instanceof IndexedPagination menu ? menu : this;
     }
 
     @Override
     public List<HumanEntity> getViewers() {
-        return inventory.getViewers();
+        return viewers();
     }
 
-    @Override
-    public void update() {
-        updating = true;
-        updatePlayerInventories(inventory, getViewers(), contents, player -> player.openInventory(this.inventory));
-        updating = false;
+    /**
+     * Swaps the visible page by writing the slots that differ into the open inventory,
+     * so the viewers keep their window and no open or close events are fired.
+     */
+    private void switchPage(BukkitContents page) {
+        BukkitContents previous = this.contents;
+        this.contents = page;
+        // rendered in full once the inventory is created
+        if (inventory == null) return;
+
+        MenuMetrics metrics = manager.getMetrics();
+        if (!metrics.isEnabled()) {
+            page.switchFrom(inventory, previous);
+            return;
+        }
+        final long start = System.nanoTime();
+        final int written = page.switchFrom(inventory, previous);
+        metrics.recordRender(this, System.nanoTime() - start, written);
     }
 
     @Override
@@ -169,7 +310,7 @@ public class PaginatedMenuImpl extends AbstractMenu implements
         if (this.rows >= type.maxRows()) return;
         this.rows++;
         this.size = rows * type.maxColumns();
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
     }
 
     public void recreateInventory() {
@@ -179,19 +320,24 @@ public class PaginatedMenuImpl extends AbstractMenu implements
     @Override
     public void updateTitle(final Component title) {
         Inventory oldInventory = inventory;
-        this.inventory = opener.open(manager, this, this.structure());
+        this.title = title;
+        if (oldInventory == null) return;
+        this.inventory = createInventory();
         updating = true;
-        updatePlayerInventories(oldInventory, getViewers(), contents, player -> player.openInventory(this.inventory));
+        updatePlayerInventories(this.inventory, oldInventory.getViewers(), contents, player -> player.openInventory(this.inventory));
         updating = false;
     }
 
     public void open(@NotNull final HumanEntity entity, final @Range(from = 0, to = Integer.MAX_VALUE) Integer openPage) {
         if (entity.isSleeping()) return;
-        if (openPage < 0 || openPage >= pages.size()) throw new IllegalArgumentException("\"openPage\" out of bounds; must be 0-" + (pages.size() - 1) + "\nopenPage: " + openPage + "\nFix: Make sure \"openPage\" is 0-" + (pages.size() - 1));
-        Objects.requireNonNull(inventory, "Inventory was provided null by the menu opener: " + this.opener.getClass().getSimpleName() + " at: " + this.opener.getClass().getPackageName());
+        final int pageCount = getPagesSize();
+        if (openPage < 0 || openPage >= pageCount) throw new IllegalArgumentException("\"openPage\" out of bounds; must be 0-" + (pageCount - 1) + "\nopenPage: " + openPage + "\nFix: Make sure \"openPage\" is 0-" + (pageCount - 1));
+        Objects.requireNonNull(getInventory(), "Inventory was provided null by the menu opener: " + this.opener.getClass().getSimpleName() + " at: " + this.opener.getClass().getPackageName());
 
         Bukkit.getScheduler().runTask(manager.getPlugin(), () -> {
             this.updatePage(openPage);
+            // rendered before the viewer sees it, even when updates are coalesced
+            this.flushNow();
             entity.openInventory(inventory);
         });
     }
@@ -203,7 +349,7 @@ public class PaginatedMenuImpl extends AbstractMenu implements
         if (rows >= type.maxRows()) return;
         rows += growRows;
         this.size = rows * type.maxColumns();
-        this.inventory = opener.open(manager, this, this.structure());
+        this.inventory = createInventory();
     }
 
     @Override
@@ -251,6 +397,11 @@ public class PaginatedMenuImpl extends AbstractMenu implements
         return contents.getItem(index);
     }
 
+    @Override
+    public @Nullable MenuItem itemAt(final int index) {
+        return contents.itemAt(index);
+    }
+
     @Override
     public void forEach(final Consumer<? super MenuItem> action) {
         contents.forEach(action);
@@ -316,6 +467,11 @@ public class PaginatedMenuImpl extends AbstractMenu implements
         this.contents.addRefreshableItem(index, item);
     }
 
+    @Override
+    public void addRefreshableItem(final int index, final Supplier<MenuItem> item, final long intervalTicks) {
+        this.contents.addRefreshableItem(index, item, intervalTicks);
+    }
+
     @Override
     public void removeRefreshableItem(final int index) {
         this.contents.removeRefreshableItem(index);
@@ -367,13 +523,13 @@ public class PaginatedMenuImpl extends AbstractMenu implements
     public int getCurrentPageNumber() { return pageIdentifier + 1; }
 
     @Override
-    public boolean isLastPage() { return pageIdentifier == (pages.size() - 1); }
+    public boolean isLastPage() { return pageIdentifier == (getPagesSize() - 1); }
 
     @Override
     public boolean isFirstPage() { return pageIdentifier == 0; }
 
     @Override
-    public int getPagesSize() { return pages.size(); }
+    public int getPagesSize() { return lazyPages == null ? pages.size() : lazyPages.pageCount().getAsInt(); }
 
     @Override
     public boolean pageChangingAction(final int clickedSlot) {
@@ -383,7 +539,7 @@ public class PaginatedMenuImpl extends AbstractMenu implements
     @Override
     public @Nullable PageChangeEvent createPageEvent(final InventoryClickEvent event) {
         int newNumber = pageIdentifier + (nextItemSlot == event.getSlot() ? 1 : -1);
-        if (newNumber < 0 || newNumber >= pages.size()) return null;
+        if (newNumber < 0 || newNumber >= getPagesSize()) return null;
         BukkitContents currentPage = getPage(newNumber);
         return new PageChangeEvent(this, this.contents, currentPage, (Player) event.getWhoClicked(), pageIdentifier, newNumber);
     }
@@ -396,24 +552,32 @@ public class PaginatedMenuImpl extends AbstractMenu implements
 
     @Override
     public boolean page(Integer pageNum) {
-        if (pageNum < 0 || pageNum >= pages.size()) return false;
+        if (pageNum < 0 || pageNum >= getPagesSize()) return false;
 
-        Bukkit.getScheduler().runTask(manager.getPlugin(), () -> {
-            Bukkit.getLogger().info("Old page: " + this.pageIdentifier);
-            updatePage(pageNum);
-            Bukkit.getLogger().info("New page: " + this.pageIdentifier);
-        });
+        Bukkit.getScheduler().runTask(manager.getPlugin(), () -> updatePage(pageNum));
         return true;
     }
 
     private void updatePage(final Integer pageNum) {
         this.pageIdentifier = pageNum;
-        this.contents = pages.get(pageNum);
-        update();
+        BukkitContents page = getPage(pageNum);
+        if (page != null) switchPage(page);
     }
 
+    /**
+     * Gets the page, a lazily paginated menu builds it if it isn't cached.
+     */
     @Nullable
-    public @Override BukkitContents getPage(Integer index) { return this.pages.get(index); }
+    public @Override BukkitContents getPage(Integer index) {
+        BukkitContents page = this.pages.get(index);
+        if (page != null || lazyPages == null || index < 0 || index >= getPagesSize()) return page;
+
+        page = lazyPages.factory().create(this, index);
+        if (page == null) return null;
+        setPageItems(page);
+        this.pages.put(index, page);
+        return page;
+    }
 
     @Override
     public Class<Integer> indexClass() { return Integer.class; }
@@ -457,6 +621,7 @@ public class PaginatedMenuImpl extends AbstractMenu implements
         }
         page(newestPageNumber);*/
         if (items == null || items.length == 0) return;
+        if (lazyPages != null) throw new IllegalStateException("Items can't be spread over the pages of a lazily paginated menu\nFix: Let the page factory build the pages from your items");
 
         List<MenuItem> leftovers = new ArrayList<>();
         for (int i = pageIdentifier; i < pages.size(); i++) {
@@ -485,18 +650,36 @@ public class PaginatedMenuImpl extends AbstractMenu implements
     public void replaceContents(Contents data) { this.contents = data; }
 
     public @NotNull IndexedPagination copy() {
+        if (lazyPages != null) return copyLazy();
         final int paginationSize = pages.size();
         PaginatedMenuImpl menu = type.inventoryType() == InventoryType.CHEST
                 ? new PaginatedMenuImpl(rows, paginationSize, title, modifiers, nextItem, previousItem, nextItemSlot, previousItemSlot, manager)
                 : new PaginatedMenuImpl(this.type, paginationSize, title, modifiers, nextItem, previousItem, nextItemSlot, previousItemSlot, manager);
         menu.setDynamicSizing(dynamicSizing);
-        menu.replaceContents(this.contents);
-        menu.actions = actions;
-        menu.slotActions = slotActions;
+        menu.actions = actions().copyFor(menu);
+        menu.slotActions = slotActions == null ? null : slotActions.clone();
+        menu.pageItems.putAll(pageItems);
+        pageItems.forEach(menu.pageOverlay::setItem);
         for (int index = 0; index < paginationSize; index++) {
-            BukkitContents page = menu.getPage(index);
-            if (page != null) page.replaceContents(this.pages.get(index));
+            MenuItem[] items = MenuBlueprint.capture(this.pages.get(index), MenuBlueprint.length(this));
+            Contents page = new Contents(menu, items, MenuBlueprint.occupied(items));
+            page.setOverlay(menu.pageOverlay);
+            menu.pages.put(index, page);
         }
+        menu.pageIdentifier = pageIdentifier;
+        menu.contents = menu.pages.get(pageIdentifier);
+        return menu;
+    }
+
+    private @NotNull IndexedPagination copyLazy() {
+        PaginatedMenuImpl menu = type.inventoryType() == InventoryType.CHEST
+                ? new PaginatedMenuImpl(rows, lazyPages, title, modifiers, nextItem, previousItem, nextItemSlot, previousItemSlot, opener, manager)
+                : new PaginatedMenuImpl(this.type, lazyPages, title, modifiers, nextItem, previousItem, nextItemSlot, previousItemSlot, opener, manager);
+        menu.setDynamicSizing(dynamicSizing);
+        menu.actions = actions().copyFor(menu);
+        menu.slotActions = slotActions == null ? null : slotActions.clone();
+        menu.pageItems.putAll(pageItems);
+        pageItems.forEach(menu.pageOverlay::setItem);
         return menu;
     }
 }
@@ -1,12 +1,16 @@
 package me.flame.menus.menu.actions;
 
 import me.flame.menus.menu.Menu;
+import me.flame.menus.menu.MenuExecutor;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.*;
 
 @SuppressWarnings("unused")
@@ -44,6 +48,34 @@ public record Action<E extends Event, T extends Event>(
         else action.accept(event);
     }
 
+    /**
+     * Executes the action from the mapped event, running it on the executor if "async" is set to "true".
+     * @param event the event.
+     * @param executor the executor async actions run on
+     */
+    public void executeEvent(E event, Executor executor) {
+        if (event == null) return;
+        if (async) executor.execute(() -> action.accept(event));
+        else action.accept(event);
+    }
+
+    /**
+     * Executes the action from the mapped event, an async action is counted against the in-flight limit of the player.
+     * @param event the event.
+     * @param executor the executor async actions run on
+     * @param player the player the event is about, null if there is none
+     * @return false if the async action was rejected and dropped
+     */
+    public boolean executeEvent(E event, MenuExecutor executor, @Nullable HumanEntity player) {
+        if (event == null) return true;
+        if (!async) {
+            action.accept(event);
+            return true;
+        }
+        final Runnable task = () -> action.accept(event);
+        return player == null ? executor.tryExecute(task) : executor.execute(player, task);
+    }
+
     public boolean canExecute(T event, Menu menu) {
         return executeIf.test(event, menu);
     }
@@ -5,12 +5,14 @@ import me.flame.menus.events.MenuCloseEvent;
 import me.flame.menus.events.PageChangeEvent;
 import me.flame.menus.menu.*;
 import me.flame.menus.menu.pagination.IndexedPagination;
+import me.flame.menus.metrics.MenuMetrics;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.inventory.Inventory;
 import org.jetbrains.annotations.NotNull;
@@ -22,9 +24,32 @@ import java.util.function.Function;
 
 @SuppressWarnings("unused")
 public class Actions {
-    private final Map<Class<?>, List<Action<? extends Event, ? extends Event>>> actions = new HashMap<>(5);
+    /**
+     * The superclasses of every event class up to {@link Event}, the class itself first.
+     */
+    private static final ClassValue<Class<?>[]> HIERARCHY = new ClassValue<>() {
+        @Override
+        protected Class<?>[] computeValue(@NotNull Class<?> type) {
+            List<Class<?>> hierarchy = new ArrayList<>(4);
+            for (Class<?> area = type; area != null && Event.class.isAssignableFrom(area); area = area.getSuperclass()) hierarchy.add(area);
+            return hierarchy.toArray(new Class<?>[0]);
+        }
+    };
+
+    private Map<Class<?>, List<Action<? extends Event, ? extends Event>>> actions = new HashMap<>(5);
+
+    /**
+     * The actions resolved per concrete event class, dropped whenever the actions change.
+     */
+    private Map<Class<?>, Action<?, ?>[]> dispatch = new HashMap<>(8);
+    private int actionCount;
     private final Menu menu;
 
+    /**
+     * Whether the tables above are shared with other copies, they are copied before the first change.
+     */
+    private boolean shared;
+
     public Actions(Menu menu) {
         this.menu = menu;
 
@@ -35,12 +60,38 @@ public class Actions {
         actions.put(InventoryDragEvent.class, new ArrayList<>(5));
     }
 
+    private Actions(Menu menu, @NotNull Actions source) {
+        this.menu = menu;
+        this.actions = source.actions;
+        this.dispatch = source.dispatch;
+        this.actionCount = source.actionCount;
+        this.shared = true;
+    }
+
+    /**
+     * Copies the actions for another menu without copying the tables,
+     * both copies keep sharing them until either of them adds or removes an action.
+     * @param menu the menu the copy belongs to
+     * @return the copy
+     */
+    public @NotNull Actions copyFor(Menu menu) {
+        this.shared = true;
+        return new Actions(menu, this);
+    }
+
     public <T extends Event, E extends Event> void addInventoryEvent(@NotNull Action<E, T> event) {
+        if (shared) unshare();
         this.actions.computeIfAbsent(event.executionArea(), (key) -> new ArrayList<>(5)).add(event);
+        this.actionCount++;
+        this.dispatch.clear();
     }
 
     public <T extends Event> void removeInventoryEvents(Class<T> eventClass) {
-        actions.remove(eventClass);
+        if (shared) unshare();
+        List<Action<? extends Event, ? extends Event>> removed = actions.remove(eventClass);
+        if (removed == null) return;
+        this.actionCount -= removed.size();
+        this.dispatch.clear();
     }
 
     public void addDefaultClickAction(Consumer<InventoryClickEvent> eventAction) {
@@ -109,7 +160,7 @@ public class Actions {
         addInventoryEvent(
             Action.builder(BeforeAnimatingEvent.class, InventoryOpenEvent.class)
                     .customEvent((event) ->
-                            new BeforeAnimatingEvent((Player) event.getPlayer(), (Menu) event.getInventory().getHolder()))
+                            new BeforeAnimatingEvent((Player) event.getPlayer(), owner(event.getInventory())))
                     .action(eventAction)
                     .executeIf((e, func) -> e.getViewers().isEmpty())
                     .build()
@@ -119,73 +170,119 @@ public class Actions {
     public void addOnPageAction(Consumer<PageChangeEvent> eventAction) {
         addInventoryEvent(
             Action.builder(PageChangeEvent.class, InventoryClickEvent.class)
-                    .customEvent((event) -> ((IndexedPagination) menu).createPageEvent(event))
+                    .customEvent((event) -> ((IndexedPagination) owner(event.getInventory())).createPageEvent(event))
                     .action(eventAction)
-                    .executeIf((e, func) -> menu instanceof IndexedPagination pagination && pagination.pageChangingAction(e.getSlot()))
+                    .executeIf((e, owner) -> owner instanceof IndexedPagination pagination && pagination.pageChangingAction(e.getSlot()))
                     .build()
         );
     }
 
     /**
-     *
+     * Executes the actions registered for the event class and its superclasses.
+     * @param event the event to supply the custom event
+     * @param menu the menu required to execute the action
+     * @return the cancelled custom events, {@link CancelledEvents#NONE} if none was cancelled
+     * @param <T> the event that has been provided
+     */
+    public <T extends Event> @NotNull CancelledEvents executeInventoryEvent(@NotNull T event, Menu menu) {
+        if (actionCount == 0) return CancelledEvents.NONE;
+        final Class<?> type = event.getClass();
+        Action<?, ?>[] compiled = dispatch.get(type);
+        if (compiled == null) dispatch.put(type, compiled = compile(type));
+
+        final MenuMetrics metrics = menu.manager() == null ? null : menu.manager().getMetrics();
+        if (metrics == null || !metrics.isEnabled()) return this.processExecution(compiled, event, menu);
+        final long start = System.nanoTime();
+        final CancelledEvents cancelled = this.processExecution(compiled, event, menu);
+        metrics.recordDispatch(menu, System.nanoTime() - start);
+        return cancelled;
+    }
+
+    /**
      * @param event the event to supply the custom event
      * @param menu the menu required to execute the action
      * @return the cancelled events (if cancelled then it doesn't return the ignore cancel events)
      * @param <E> the custom event
      * @param <T> the event that has been provided
+     * @deprecated allocates a set on every event, use {@link #executeInventoryEvent(Event, Menu)}
      */
+    @Deprecated
     public <E extends Event, T extends Event> Set<Class<?>> executeInventoryEventBy(@NotNull T event, Menu menu) {
-        @SuppressWarnings("unchecked") // java is kinda stupid, don't mind java
-        Class<T> executionArea = (Class<T>) event.getClass();
-        return this.processExecution(executionArea, event, menu);
+        return executeInventoryEvent(event, menu).toSet();
     }
 
     @SuppressWarnings("unchecked")
-    private <E extends Event, T extends Event> Set<Class<?>> processExecution(Class<T> executionArea, T event, Menu menu) {
+    private <E extends Event, T extends Event> CancelledEvents processExecution(Action<?, ?>[] compiled, Event event, Menu menu) {
         boolean cancelled = false;
-        Set<Class<?>> cancelledEvents = new HashSet<>(3);
-        for (Action<? extends Event, ? extends Event> unchecked : this.actions.get(executionArea)) {
-            if (cancelled && !unchecked.ignoreCancelled()) {
-                cancelledEvents.add(unchecked.getClass());
-                continue;
-            }
+        long cancelledEvents = 0;
+        Set<Class<?>> overflow = null;
+        for (Action<?, ?> unchecked : compiled) {
+            if (cancelled && !unchecked.ignoreCancelled()) continue;
 
-            Action<E, T> action = ((Action<E, T>) unchecked).copy();
+            Action<E, T> action = (Action<E, T>) unchecked;
 
-            E executedEvent = checkExecution(event, menu, action);
+            E executedEvent = checkExecution((T) event, menu, action);
             cancelled = executedEvent instanceof Cancellable cancellable && cancellable.isCancelled();
 
-            checkCancellation(event, executedEvent, cancelledEvents, action);
+            if (cancelled && event instanceof Cancellable cancellable) {
+                cancellable.setCancelled(true);
+                final long bit = CancelledEvents.bitOf(executedEvent.getClass());
+                if (bit != 0) {
+                    cancelledEvents |= bit;
+                } else {
+                    if (overflow == null) overflow = new HashSet<>(2);
+                    overflow.add(executedEvent.getClass());
+                }
+                action.executeCancellationEvent(executedEvent);
+            }
         }
-        return cancelledEvents;
+        if (cancelledEvents == 0 && overflow == null) return CancelledEvents.NONE;
+        return new CancelledEvents(cancelledEvents, overflow == null ? Collections.emptySet() : Collections.unmodifiableSet(overflow));
     }
 
-    private static <T extends Event, E extends Event> void checkCancellation(final T event, final E executedEvent, final Set<Class<?>> cancelledEvents, final Action<E, T> action) {
-        if (event instanceof Cancellable cancellable
-                && executedEvent instanceof Cancellable cancellableEvent
-                && cancellableEvent.isCancelled()) {
-            cancellable.setCancelled(true);
-            cancelledEvents.add(cancellableEvent.getClass());
-            action.executeCancellationEvent(executedEvent);
-        }
+    @Nullable
+    private static <E extends Event, T extends Event> E checkExecution(T event, Menu menu, Action<E, T> action) {
+        if (!action.canExecute(event, menu)) return null;
+        E requiredEvent = action.createEvent(event);
+        Menus manager = menu.manager();
+        if (manager == null) action.executeEvent(requiredEvent);
+        else action.executeEvent(requiredEvent, manager.getExecutor(), event instanceof InventoryEvent inventoryEvent ? inventoryEvent.getView().getPlayer() : null);
+        return requiredEvent;
     }
 
-    private static <E extends Event, T extends Event> void checkCancellation(final T event, final E executedEvent, final Set<Class<?>> cancelledEvents) {
-        if (event instanceof Cancellable cancellable
-                && executedEvent instanceof Cancellable cancellableEvent
-                && cancellableEvent.isCancelled()) {
-            cancellable.setCancelled(true);
-            cancelledEvents.add(cancellableEvent.getClass());
+    /**
+     * The menu an event happened in, actions are shared between copies so they can't rely on {@link #menu}.
+     */
+    private Menu owner(Inventory inventory) {
+        Menus manager = menu == null ? null : menu.manager();
+        Menu owner = manager == null ? null : manager.getMenu(inventory);
+        if (owner != null) return owner;
+        return inventory.getHolder() instanceof Menu holder ? holder : menu;
+    }
+
+    /**
+     * Copies the tables this instance shares with other copies.
+     */
+    private void unshare() {
+        Map<Class<?>, List<Action<? extends Event, ? extends Event>>> copy = new HashMap<>(Math.max(actions.size() * 2, 5));
+        for (Map.Entry<Class<?>, List<Action<? extends Event, ? extends Event>>> entry : actions.entrySet()) {
+            copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
         }
+        this.actions = copy;
+        this.dispatch = new HashMap<>(8);
+        this.shared = false;
     }
 
-    @Nullable
-    private static <E extends Event, T extends Event> E checkExecution(T event, Menu menu, Action<E, T> action) {
-        if (action.canExecute(event, menu)) {
-            E requiredEvent = action.createEvent(event);
-            action.executeEvent(requiredEvent);
+    /**
+     * Collects the actions of the event class and its superclasses, the most specific ones first.
+     */
+    private Action<?, ?> @NotNull [] compile(Class<?> type) {
+        List<Action<? extends Event, ? extends Event>> resolved = new ArrayList<>(actionCount);
+        for (Class<?> area : HIERARCHY.get(type)) {
+            List<Action<? extends Event, ? extends Event>> registered = actions.get(area);
+            if (registered != null) resolved.addAll(registered);
         }
-        return null;
+        return resolved.toArray(new Action<?, ?>[0]);
     }
 
     public <T> boolean hasActionList(Class<T> actionType) {
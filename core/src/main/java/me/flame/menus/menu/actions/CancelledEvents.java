@@ -0,0 +1,68 @@
+package me.flame.menus.menu.actions;
+
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The custom events cancelled while one event was dispatched to the actions of a menu,
+ * returned by {@link Actions#executeInventoryEvent(Event, me.flame.menus.menu.Menu)}.
+ * <p>
+ * The first 63 cancelled event classes get a bit of the mask, the classes after them are listed in the overflow set.
+ * @param mask the bits of the cancelled event classes
+ * @param overflow the cancelled event classes without a bit
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public record CancelledEvents(long mask, @NotNull @Unmodifiable Set<Class<?>> overflow) {
+    public static final CancelledEvents NONE = new CancelledEvents(0, Collections.emptySet());
+
+    private static final int BITS = Long.SIZE - 1;
+    private static final AtomicInteger NEXT_BIT = new AtomicInteger();
+    private static final Class<?>[] CLASSES = new Class<?>[BITS];
+    private static final ClassValue<Long> CLASS_BITS = new ClassValue<>() {
+        @Override
+        protected Long computeValue(@NotNull Class<?> type) {
+            int bit = NEXT_BIT.getAndIncrement();
+            if (bit >= BITS) return 0L;
+            CLASSES[bit] = type;
+            return 1L << bit;
+        }
+    };
+
+    public boolean isEmpty() {
+        return mask == 0 && overflow.isEmpty();
+    }
+
+    /**
+     * @param eventClass the custom event class
+     * @return whether an event of that class was cancelled
+     */
+    public boolean isCancelled(@NotNull Class<? extends Event> eventClass) {
+        if (isEmpty()) return false;
+        final long bit = bitOf(eventClass);
+        return bit != 0 ? (mask & bit) != 0 : overflow.contains(eventClass);
+    }
+
+    /**
+     * @return every cancelled event class
+     */
+    public @NotNull Set<Class<?>> toSet() {
+        if (isEmpty()) return Collections.emptySet();
+        Set<Class<?>> classes = new HashSet<>(overflow);
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) classes.add(CLASSES[Long.numberOfTrailingZeros(remaining)]);
+        return classes;
+    }
+
+    /**
+     * @return the bit of the event class, 0 once every bit is taken
+     */
+    static long bitOf(@NotNull Class<?> eventClass) {
+        return CLASS_BITS.get(eventClass);
+    }
+}
@@ -1,16 +1,22 @@
 package me.flame.menus.menu.contents;
 
+import me.flame.menus.components.nbt.ItemNbt;
 import me.flame.menus.menu.Menu;
 import me.flame.menus.items.MenuItem;
 import me.flame.menus.menu.Slot;
+import org.bukkit.Material;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.ObjIntConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static me.flame.menus.menu.Menu.validateSlot;
@@ -76,8 +82,47 @@ public interface BukkitContents {
 
     int firstEmptySlot(int startingPoint);
 
+    /**
+     * Iterates the empty slots from the starting point in ascending order.
+     * @param startingPoint the first slot to consider
+     * @return the empty slots
+     */
+    default PrimitiveIterator.OfInt freeSlots(int startingPoint) {
+        return new PrimitiveIterator.OfInt() {
+            private int next = firstEmptySlot(startingPoint);
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next == -1) throw new NoSuchElementException();
+                int slot = next;
+                next = slot + 1 < size() ? firstEmptySlot(slot + 1) : -1;
+                return slot;
+            }
+        };
+    }
+
+    default PrimitiveIterator.OfInt freeSlots() {
+        return this.freeSlots(0);
+    }
+
     void addRefreshableItem(int index, Supplier<MenuItem> item);
 
+    /**
+     * Adds an item that is computed again every interval, independent of updates of the menu.
+     * Only the slot of the item is written when it is due, and the timer is paused while nobody views the menu.
+     * @param index the slot
+     * @param item the supplier of the item
+     * @param intervalTicks the interval in ticks
+     */
+    default void addRefreshableItem(int index, Supplier<MenuItem> item, long intervalTicks) {
+        throw new UnsupportedOperationException("Timed refreshable items are not supported by " + getClass().getSimpleName());
+    }
+
     void removeRefreshableItem(int index);
 
     default int addItem(final @NotNull MenuItem... items) {
@@ -96,6 +141,15 @@ public interface BukkitContents {
 
     Optional<MenuItem> getItem(int index);
 
+    /**
+     * Get the item at the provided slot without wrapping it.
+     * @param index the slot
+     * @return the item, or null if the slot is empty or out of bounds
+     */
+    default @Nullable MenuItem itemAt(int index) {
+        return getItem(index).orElse(null);
+    }
+
     void forEach(Consumer<? super MenuItem> action);
 
     void indexed(ObjIntConsumer<? super MenuItem> action);
@@ -106,6 +160,60 @@ public interface BukkitContents {
 
     boolean removeItem(MenuItem... its);
 
+    /**
+     * Finds the first slot holding the item.
+     * @param item the item, compared by its id
+     * @return the slot, or -1 if no slot holds it
+     */
+    default int slotOf(@NotNull MenuItem item) {
+        final int[] found = { -1 };
+        indexed((other, slot) -> {
+            if (other.equals(item) && (found[0] == -1 || slot < found[0])) found[0] = slot;
+        });
+        return found[0];
+    }
+
+    /**
+     * Iterates the slots holding an item of the material.
+     * @param material the material
+     * @return the slots in ascending order
+     */
+    default PrimitiveIterator.OfInt slotsOf(@NotNull Material material) {
+        final IntStream.Builder slots = IntStream.builder();
+        indexed((item, slot) -> {
+            if (item.getType() == material) slots.add(slot);
+        });
+        return slots.build().sorted().iterator();
+    }
+
+    /**
+     * Iterates the slots holding an item with the NBT key set through {@link ItemNbt}.
+     * @param key the key without its namespace
+     * @return the slots in ascending order
+     */
+    default PrimitiveIterator.OfInt slotsWithNbt(@NotNull String key) {
+        final IntStream.Builder slots = IntStream.builder();
+        indexed((item, slot) -> {
+            if (ItemNbt.getKeys(item.getItemStack()).contains(key)) slots.add(slot);
+        });
+        return slots.build().sorted().iterator();
+    }
+
+    /**
+     * Removes every item with one of the unique ids.
+     * @param uniqueIds the unique ids of the items
+     * @return the amount of slots emptied
+     */
+    default int removeAll(@NotNull Collection<UUID> uniqueIds) {
+        final IntStream.Builder slots = IntStream.builder();
+        indexed((item, slot) -> {
+            if (uniqueIds.contains(item.getUniqueId())) slots.add(slot);
+        });
+        final int[] removed = slots.build().toArray();
+        for (int slot : removed) removeItem(slot);
+        return removed.length;
+    }
+
     boolean isConcurrent();
 
     /**
@@ -146,11 +254,92 @@ public interface BukkitContents {
     int size();
 
     default boolean hasItem(int slot) {
-        return getItem(slot).isPresent();
+        return itemAt(slot) != null;
     }
 
     void recreateItems(Inventory inventory);
 
+    /**
+     * Writes the slots that changed since the last flush to the inventory.
+     * <p>
+     * Contents that don't track changes render everything again.
+     * @param inventory the inventory to write to
+     * @return the amount of slots written
+     */
+    default int flush(Inventory inventory) {
+        recreateItems(inventory);
+        return size();
+    }
+
+    /**
+     * Takes over an inventory that currently shows other contents, writing only the slots that differ.
+     * <p>
+     * Contents that don't track what was rendered render everything again.
+     * @param inventory the inventory both contents are shown in
+     * @param previous the contents shown in the inventory until now
+     * @return the amount of slots written
+     */
+    default int switchFrom(Inventory inventory, @Nullable BukkitContents previous) {
+        recreateItems(inventory);
+        return size();
+    }
+
+    /**
+     * Shows the shared contents over these contents, for example the page items of a paginated menu.
+     * <p>
+     * Contents that can't layer copy the items of the overlay into their own slots.
+     * @param overlay the shared contents, or null to remove it
+     */
+    default void setOverlay(@Nullable Contents overlay) {
+        if (overlay != null) overlay.indexed((item, slot) -> setItem(slot, item));
+    }
+
+    /**
+     * Cancels the timers of the timed refreshable items.
+     */
+    default void release() {}
+
+    /**
+     * Stops the timers of the timed refreshable items until {@link #resumeRefreshing()}, called when nobody views the menu anymore.
+     */
+    default void pauseRefreshing() {}
+
+    /**
+     * Computes the paused timed refreshable items again and restarts their timers, called when the menu is opened.
+     */
+    default void resumeRefreshing() {}
+
+    /**
+     * Forces the slot to be written on the next flush, even if it looks unchanged,
+     * for example after the item stack of the slot was modified directly.
+     * @param slot the slot
+     */
+    default void markDirty(int slot) {}
+
+    /**
+     * Forgets what was rendered, so the next flush renders everything.
+     */
+    default void invalidate() {}
+
+    /**
+     * Gets the item these contents last rendered into the slot of the inventory, if the clicked stack still looks like it.
+     * @param inventory the inventory that was clicked
+     * @param slot the slot
+     * @param clicked the stack in the slot
+     * @return the rendered item, or null if it isn't known
+     */
+    @ApiStatus.Internal
+    default @Nullable MenuItem renderedItem(Inventory inventory, int slot, @NotNull ItemStack clicked) {
+        return null;
+    }
+
+    /**
+     * @return whether slots were changed since the last flush
+     */
+    default boolean isDirty() {
+        return true;
+    }
+
     default int addItem(@NotNull final List<MenuItem> items) {
         return addItem(items.toArray(new MenuItem[0]));
     }
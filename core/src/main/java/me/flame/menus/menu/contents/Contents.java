@@ -2,39 +2,132 @@ package me.flame.menus.menu.contents;
 
 import com.google.common.collect.ImmutableList;
 
-import me.flame.lotte.LinkedConcurrentCache;
 import me.flame.menus.builders.menus.ContentsBuilder;
-import me.flame.menus.util.Option;
+import me.flame.menus.components.nbt.ItemNbt;
+import me.flame.menus.items.ItemIds;
 import me.flame.menus.items.MenuItem;
 import me.flame.menus.menu.Menu;
+import me.flame.menus.menu.Menus;
+import me.flame.menus.scheduler.TimingWheel;
 
+import org.bukkit.Material;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.*;
 import java.util.function.*;
 import java.util.stream.Stream;
 
+/**
+ * The default storage engine for menu slots.
+ * <p>
+ * Slots are stored in a plain {@link MenuItem} array indexed by the slot itself,
+ * so every lookup is a direct array access without boxing or hashing.
+ * Occupied slots are also tracked in a bitmask, which makes finding empty slots and counting items constant time.
+ * <p>
+ * The contents remember what they last wrote to an inventory, so {@link #flush(Inventory)} only writes
+ * the slots that actually changed since.
+ * <p>
+ * Lookups by item, {@link Material} and NBT key are answered from reverse indexes,
+ * which are built on the first such lookup and updated by every write after.
+ * <p>
+ * If you need the old map based storage, use {@link MapContents}.
+ * @since 3.0.0
+ */
 @SuppressWarnings("unused")
 public final class Contents implements BukkitContents {
-    Map<Integer, MenuItem> items;
+    private MenuItem[] items;
+
+    /**
+     * Whether the slot array still belongs to a {@link me.flame.menus.menu.MenuBlueprint}, it is copied before the first write.
+     */
+    private boolean sharedItems;
+
+    /**
+     * One bit per slot, set when the slot holds an item; 54 slots always fit in a single long.
+     */
+    private long occupied;
+
+    /**
+     * Slots touched since the last flush, these are written even if they look unchanged.
+     */
+    private long dirty;
     private final Menu menu;
 
-    private final Map<Integer, Supplier<MenuItem>> refreshableItems = new HashMap<>(9);
+    private Supplier<MenuItem>[] refreshableItems;
+
+    /**
+     * Slots computed again on every flush, timed refreshable items aren't in it since the wheel drives them.
+     */
+    private long refreshing;
+    private TimingWheel.Timer[] refreshTimers;
+
+    /**
+     * The interval of every timed refreshable item, kept while its timer is paused.
+     */
+    private long[] refreshIntervals;
+
+    /**
+     * The inventory the contents were last rendered to, and what was written to each of its slots.
+     */
+    private Inventory renderTarget;
+    private ItemStack[] shown;
+    private int[] shownVersions;
+    private MenuItem[] shownItems;
+
+    /**
+     * Shared contents shown in every slot these contents leave empty,
+     * and the slots of it that changed since the last flush.
+     */
+    private BukkitContents underlay;
+    private long stale;
+
+    /**
+     * Shared contents shown over these contents, like the page items of a paginated menu.
+     */
+    private Contents overlay;
+
+    /**
+     * Reverse lookups of the own slots, null until the first indexed query.
+     */
+    private SlotIndex index;
 
     public Contents(Menu menu) {
         Objects.requireNonNull(menu);
         this.menu = menu;
-        this.items = new LinkedHashMap<>(menu.size());
+        this.items = new MenuItem[Math.max(menu.size(), menu.getType().maxSize())];
     }
 
+    /**
+     * @deprecated the slots are an array now, concurrent contents are {@link MapContents}
+     * and are created through {@code Contents.builder(menu, true)}.
+     */
+    @Deprecated
+    @ApiStatus.ScheduledForRemoval(inVersion = "3.1.0")
     public Contents(Menu menu, boolean concurrent) {
+        this(menu);
+        if (concurrent) throw new IllegalArgumentException("Contents are no longer concurrent\nFix: Use new MapContents(menu, true) or Contents.builder(menu, true)");
+    }
+
+    /**
+     * Creates contents reading from a shared slot array until they are first changed.
+     * @param menu the menu
+     * @param template the slots, never written to
+     * @param occupied the occupied slots of the template
+     */
+    @ApiStatus.Internal
+    public Contents(Menu menu, MenuItem @NotNull [] template, long occupied) {
         Objects.requireNonNull(menu);
         this.menu = menu;
-        this.items = concurrent ? new LinkedConcurrentCache<>(menu.size()) : new LinkedHashMap<>(menu.size());
+        this.items = template;
+        this.occupied = occupied;
+        this.sharedItems = true;
     }
 
     @Contract("_ -> new")
@@ -49,54 +142,97 @@ public final class Contents implements BukkitContents {
 
     @Contract(pure = true)
     public @Unmodifiable Map<Integer, MenuItem> getItems() {
-        return Map.copyOf(items);
+        Map<Integer, MenuItem> copy = new LinkedHashMap<>(itemCount());
+        final int length = items.length;
+        for (int slot = 0; slot < length; slot++) {
+            MenuItem item = items[slot];
+            if (item != null) copy.put(slot, item);
+        }
+        return Collections.unmodifiableMap(copy);
     }
 
+    /**
+     * A live map view over the slots, writes to this map are written to the contents.
+     * @return the view
+     */
     public Map<Integer, MenuItem> getMutableItems() {
-        return items;
+        return new SlotView();
     }
 
     @Override
     public void refreshItem(final int index) {
-        MenuItem item = refreshableItems.get(index).get();
-        this.items.put(index, item);
-        this.menu.getInventory().setItem(index, item.getItemStack());
+        this.put(index, refreshableItems[index].get());
+        this.writeThrough(index);
     }
 
     @Override
     public void refreshItem(final int index, final Supplier<MenuItem> item) {
-        items.put(index, item.get());
+        this.put(index, item.get());
     }
 
     @Override
     public Stream<MenuItem> stream() {
-        return items.values().stream();
+        return Arrays.stream(items).filter(Objects::nonNull);
     }
 
     @Override
     public int itemCount() {
-        return items.size();
+        return Long.bitCount(occupied);
     }
 
     @Override
     public int firstEmptySlot(final int startingPoint) {
-        final int size = menu.size();
-        for (int index = startingPoint; index < size; index++) {
-            if (!this.items.containsKey(index)) return index;
-        }
-        return -1;
+        long free = freeSlotMask(startingPoint);
+        return free == 0 ? -1 : Long.numberOfTrailingZeros(free);
     }
 
+    /**
+     * Iterates the empty slots from the starting point without rescanning for every slot.
+     * <p>
+     * The iterator works on a snapshot of the occupancy taken when it is created.
+     * @param startingPoint the first slot to consider
+     * @return the empty slots in ascending order
+     */
     @Override
+    public PrimitiveIterator.OfInt freeSlots(final int startingPoint) {
+        return new MaskIterator(freeSlotMask(startingPoint));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
     public void addRefreshableItem(final int index, final Supplier<MenuItem> item) {
-        refreshableItems.put(index, item);
-        this.items.put(index, item.get());
+        if (refreshableItems == null) refreshableItems = new Supplier[items.length];
+        cancelRefreshTimer(index);
+        refreshableItems[index] = item;
+        refreshing |= 1L << index;
+        this.put(index, item.get());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void addRefreshableItem(final int index, final Supplier<MenuItem> item, final long intervalTicks) {
+        Menus manager = menu.manager();
+        if (manager == null) throw new IllegalStateException("Timed refreshable items need the menu to have a Menus manager");
+        if (refreshableItems == null) refreshableItems = new Supplier[items.length];
+        if (refreshTimers == null) {
+            refreshTimers = new TimingWheel.Timer[items.length];
+            refreshIntervals = new long[items.length];
+        }
+
+        cancelRefreshTimer(index);
+        refreshableItems[index] = item;
+        refreshing &= ~(1L << index);
+        refreshIntervals[index] = intervalTicks;
+        this.put(index, item.get());
+        startRefreshTimer(manager, index);
     }
 
     @Override
     public void removeRefreshableItem(final int index) {
-        refreshableItems.remove(index);
-        this.items.remove(index);
+        if (refreshableItems != null) refreshableItems[index] = null;
+        cancelRefreshTimer(index);
+        refreshing &= ~(1L << index);
+        this.put(index, null);
     }
 
     public int addItem(final @NotNull MenuItem... items) {
@@ -112,20 +248,20 @@ public final class Contents implements BukkitContents {
     }
 
     public int addItem(final List<MenuItem> toAdd, int fromIndex, int toIndex, final MenuItem... items) {
-        boolean changed = false;
-        int itemsAdded = 0, size = menu.size();
-        for (int itemIndex = 0, slot = this.firstEmptySlot(fromIndex); itemIndex < toIndex; itemIndex++) {
+        int itemsAdded = 0;
+        long free = freeSlotMask(fromIndex);
+        for (int itemIndex = 0; itemIndex < toIndex; itemIndex++) {
             MenuItem item = items[itemIndex];
             if (item == null) continue;
 
-            slot = this.firstEmptySlot(slot);
-            if (slot >= size) {
+            if (free == 0) {
                 if (menu.rows() == 6) return itemsAdded;
-                List<MenuItem> unaddedItems = ImmutableList.copyOf(items);
-                toAdd.addAll(itemIndex == 0 ? unaddedItems : unaddedItems.subList(itemIndex, size));
+                toAdd.addAll(ImmutableList.copyOf(items).subList(itemIndex, toIndex));
                 break;
             }
-            this.items.put(slot, items[itemIndex]);
+            int slot = Long.numberOfTrailingZeros(free);
+            free &= free - 1;
+            this.put(slot, item);
             itemsAdded++;
         }
         checkSizing(toAdd, menu);
@@ -154,16 +290,37 @@ public final class Contents implements BukkitContents {
     public void replaceContents(MenuItem @NotNull ... items) {
         int length = items.length;
         if (length % 9 != 0) throw new IllegalArgumentException("Length of items is not a multiple of 9");
-        this.items.clear();
-        for (int i = 0; i < length; i++) {
-            MenuItem item = items[i];
-            this.items.put(i, item);
-        }
+        this.clear();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) this.put(i, items[i]);
     }
 
     public void replaceContents(BukkitContents contents) {
-        if (contents.size() % 9 != 0) throw new IllegalArgumentException("Length of items is not a multiple of 9");
-        this.items = contents.getItems();
+        final int size = contents.size();
+        if (size % 9 != 0) throw new IllegalArgumentException("Length of items is not a multiple of 9");
+        this.clear();
+        ensureCapacity(size);
+        for (int slot = 0; slot < size; slot++) this.put(slot, contents.itemAt(slot));
+    }
+
+    /**
+     * Replaces the first slots with a copy of the items, null entries empty their slot.
+     * @param items the items by slot, never written to
+     * @param occupied the slots of the items that aren't null
+     * @param length the amount of slots to replace
+     */
+    @ApiStatus.Internal
+    public void replaceRange(MenuItem @NotNull [] items, long occupied, int length) {
+        length = Math.min(Math.min(items.length, length), Long.SIZE);
+        ensureCapacity(length);
+        if (sharedItems) unshare();
+        System.arraycopy(items, 0, this.items, 0, length);
+
+        final long range = slotMask(length);
+        this.occupied = (this.occupied & ~range) | (occupied & range);
+        this.index = null;
+        if (dirty == 0 && menu.isCoalescing()) menu.requestFlush();
+        this.dirty |= range;
     }
 
     @Override
@@ -188,50 +345,111 @@ public final class Contents implements BukkitContents {
 
     @Override
     public Set<Map.Entry<Integer, MenuItem>> getEntries() {
-        return this.items.entrySet();
+        return new SlotView().entrySet();
     }
 
     public void setItem(int slot, MenuItem item) {
-        items.put(slot, item);
+        ensureCapacity(slot + 1);
+        this.put(slot, item);
     }
 
     public Optional<MenuItem> getItem(int index) {
-        return Optional.ofNullable(items.get(index));
+        return Optional.ofNullable(itemAt(index));
+    }
+
+    @Override
+    public @Nullable MenuItem itemAt(int index) {
+        if (overlay != null && overlay.hasOwnItem(index)) return overlay.items[index];
+        MenuItem item = index >= 0 && index < items.length ? items[index] : null;
+        return item == null && underlay != null ? underlay.itemAt(index) : item;
     }
 
     public void forEach(Consumer<? super MenuItem> action) {
-        for (var item : items.entrySet()) action.accept(item.getValue());
+        for (MenuItem item : items) if (item != null) action.accept(item);
     }
 
     public void indexed(ObjIntConsumer<? super MenuItem> action) {
-        for (var item : items.entrySet()) action.accept(item.getValue(), item.getKey());
+        final int length = items.length;
+        for (int slot = 0; slot < length; slot++) {
+            MenuItem item = items[slot];
+            if (item != null) action.accept(item, slot);
+        }
     }
 
     public Optional<MenuItem> findFirst(Predicate<MenuItem> action) {
-        for (var item : items.entrySet()) if (action.test(item.getValue())) return Optional.of(item.getValue());
+        for (MenuItem item : items) if (item != null && action.test(item)) return Optional.of(item);
         return Optional.empty();
     }
 
     public MenuItem removeItem(int index) {
-        return items.remove(index);
+        // only the own slot is removed, an item of the overlay or underlay stays where it is
+        if (!hasOwnItem(index)) return null;
+        MenuItem old = items[index];
+        this.put(index, null);
+        return old;
     }
 
     public boolean hasItem(int slot) {
-        return items.containsKey(slot);
+        if (hasOwnItem(slot) || (overlay != null && overlay.hasOwnItem(slot))) return true;
+        return underlay != null && underlay.hasItem(slot);
     }
 
     public boolean removeItem(MenuItem... abandonedItems) {
-        Set<MenuItem> items = Set.of(abandonedItems);
+        final SlotIndex index = index();
+        long slots = 0;
+        for (MenuItem item : abandonedItems) if (item != null) slots |= index.ids.getOrDefault(item.getId(), 0L);
+        return removeSlots(slots) != 0;
+    }
 
-        boolean changed = false;
-        for (Map.Entry<Integer, MenuItem> entries : this.items.entrySet()) {
-            int index = entries.getKey();
-            if (!items.contains(entries.getValue())) continue;
-            this.items.remove(index);
-            this.menu.getInventory().setItem(index, null);
-            changed = true;
-        }
-        return changed;
+    /**
+     * Removes every item with one of the unique ids, looked up through the index instead of comparing every slot.
+     * @param uniqueIds the unique ids of the items
+     * @return the amount of slots emptied
+     */
+    @Override
+    public int removeAll(@NotNull Collection<UUID> uniqueIds) {
+        final SlotIndex index = index();
+        long slots = 0;
+        for (UUID uniqueId : uniqueIds) slots |= index.ids.getOrDefault(ItemIds.of(uniqueId), 0L);
+        return removeSlots(slots);
+    }
+
+    /**
+     * Finds the first slot holding the item, the overlay and underlay aren't searched.
+     * @param item the item, compared by its id
+     * @return the slot, or -1 if no slot holds it
+     */
+    @Override
+    public int slotOf(@NotNull MenuItem item) {
+        long slots = index().ids.getOrDefault(item.getId(), 0L);
+        return slots == 0 ? -1 : Long.numberOfTrailingZeros(slots);
+    }
+
+    /**
+     * Iterates the slots holding an item of the material, the overlay and underlay aren't searched.
+     * @param material the material
+     * @return the slots in ascending order
+     */
+    @Override
+    public PrimitiveIterator.OfInt slotsOf(@NotNull Material material) {
+        SlotIndex index = index();
+        index.refresh();
+        return new MaskIterator(index.materials.getOrDefault(material, 0L));
+    }
+
+    /**
+     * Iterates the slots holding an item with the NBT key set through {@link ItemNbt}, the overlay and underlay aren't searched.
+     * <p>
+     * The first lookup reads the tags of every item, later lookups only read the items changed since.
+     * @param key the key without its namespace
+     * @return the slots in ascending order
+     */
+    @Override
+    public PrimitiveIterator.OfInt slotsWithNbt(@NotNull String key) {
+        SlotIndex index = index();
+        index.indexNbt();
+        index.refresh();
+        return new MaskIterator(index.nbtKeys.getOrDefault(key, 0L));
     }
 
     @Override
@@ -240,24 +458,181 @@ public final class Contents implements BukkitContents {
     }
 
     public void recreateItems(Inventory inventory) {
-        final int size = this.menu.size();
-        for (Map.Entry<Integer, MenuItem> entry : this.items.entrySet()) {
-            int itemIndex = entry.getKey();
-            MenuItem button = entry.getValue();
-            if (button == null || (button.getVisiblity() != null && !button.getVisiblity().test(menu))) {
-                inventory.setItem(itemIndex, null);
-                continue;
-            }
+        final int length = renderedLength();
+        ensureShown();
+        this.renderTarget = inventory;
+        resumeRefreshing();
+        for (int slot = 0; slot < length; slot++) sync(inventory, slot, true);
+        this.dirty = 0;
+        this.stale = 0;
+    }
+
+    /**
+     * Shows the shared contents in every slot these contents leave empty, for example the base of a per-player view.
+     * <p>
+     * Only {@link #itemAt(int)}, {@link #getItem(int)}, {@link #hasItem(int)} and the rendering look through to it,
+     * every other method only sees the slots of these contents.
+     * Changes of the underlay are picked up after they are reported through {@link #markStale(long)}.
+     * @param underlay the shared contents, or null to remove it
+     */
+    public void setUnderlay(@Nullable BukkitContents underlay) {
+        this.underlay = underlay;
+        this.renderTarget = null;
+    }
+
+    public @Nullable BukkitContents getUnderlay() {
+        return underlay;
+    }
+
+    /**
+     * Shows the shared contents over these contents, the slots it occupies are skipped when adding items.
+     * <p>
+     * Like the underlay, only lookups by slot and the rendering see it.
+     * The occupied slots of the overlay are compared on every flush, removals from it are picked up after {@link #markDirty(int)}.
+     * @param overlay the shared contents, or null to remove it
+     */
+    @Override
+    public void setOverlay(@Nullable Contents overlay) {
+        this.overlay = overlay;
+        this.renderTarget = null;
+    }
+
+    public @Nullable Contents getOverlay() {
+        return overlay;
+    }
+
+    /**
+     * Makes the next flush compare the slots against what was rendered, without forcing a write.
+     * @param slots the slots as a mask
+     */
+    public void markStale(long slots) {
+        if (slots == 0) return;
+        if (dirty == 0 && stale == 0 && menu.isCoalescing()) menu.requestFlush();
+        this.stale |= slots;
+    }
+
+    /**
+     * Writes the slots that changed since the last flush to the inventory.
+     * <p>
+     * A slot is written when it was set or removed, when its item was edited,
+     * when its visibility flipped or when its refreshable supplier produced something else.
+     * If the inventory isn't the one these contents were last rendered to, everything is rendered.
+     * @param inventory the inventory to write to
+     * @return the amount of slots written
+     */
+    @Override
+    public int flush(Inventory inventory) {
+        if (inventory != renderTarget) {
+            recreateItems(inventory);
+            return renderedLength();
+        }
+
+        long pending = (occupied | dirty | refreshing | stale | overlayMask()) & slotMask(renderedLength());
+        this.stale = 0;
+        final long forced = dirty;
+        this.dirty = 0;
+
+        int written = 0;
+        while (pending != 0) {
+            int slot = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1;
+            if (sync(inventory, slot, (forced & (1L << slot)) != 0)) written++;
+        }
+        return written;
+    }
+
+    @Override
+    public int switchFrom(Inventory inventory, @Nullable BukkitContents previous) {
+        if (previous == this) return flush(inventory);
+        if (!(previous instanceof Contents page) || page.renderTarget != inventory) {
+            recreateItems(inventory);
+            return renderedLength();
+        }
+
+        // start from what the previous page left in the inventory, then diff against it
+        ensureShown();
+        final int copied = Math.min(page.shown.length, shown.length);
+        System.arraycopy(page.shown, 0, shown, 0, copied);
+        System.arraycopy(page.shownVersions, 0, shownVersions, 0, copied);
+        System.arraycopy(page.shownItems, 0, shownItems, 0, copied);
+        Arrays.fill(shown, copied, shown.length, null);
+        Arrays.fill(shownVersions, copied, shownVersions.length, 0);
+        Arrays.fill(shownItems, copied, shownItems.length, null);
+        page.renderTarget = null;
+        this.renderTarget = inventory;
+        this.dirty = 0;
+        resumeRefreshing();
+
+        final int length = renderedLength();
+        int written = 0;
+        for (int slot = 0; slot < length; slot++) if (sync(inventory, slot, false)) written++;
+        return written;
+    }
+
+    @Override
+    public void markDirty(int slot) {
+        if (slot < 0 || slot >= Long.SIZE) return;
+        if (dirty == 0 && menu.isCoalescing()) menu.requestFlush();
+        dirty |= 1L << slot;
+    }
+
+    @Override
+    public void invalidate() {
+        this.renderTarget = null;
+    }
+
+    /**
+     * Answered from the table the renderer keeps, the clicked stack is only compared by type and amount.
+     */
+    @Override
+    public @Nullable MenuItem renderedItem(Inventory inventory, int slot, @NotNull ItemStack clicked) {
+        if (inventory == null || inventory != renderTarget || slot < 0 || slot >= renderedLength()) return null;
+        final ItemStack stack = shown[slot];
+        if (stack == null || stack.getType() != clicked.getType() || stack.getAmount() != clicked.getAmount()) return null;
+        return shownItems[slot];
+    }
 
-            Supplier<MenuItem> refreshableItem = this.refreshableItems.get(itemIndex);
-            if (refreshableItem != null) inventory.setItem(itemIndex, refreshableItem.get().getItemStack());
-            else inventory.setItem(itemIndex, button.getItemStack());
+    @Override
+    public void release() {
+        if (refreshTimers == null) return;
+        for (int slot = 0; slot < refreshTimers.length; slot++) cancelRefreshTimer(slot);
+    }
+
+    @Override
+    public void pauseRefreshing() {
+        if (refreshTimers == null) return;
+        for (int slot = 0; slot < refreshTimers.length; slot++) stopRefreshTimer(slot);
+    }
+
+    @Override
+    public void resumeRefreshing() {
+        Menus manager = menu.manager();
+        if (refreshTimers == null || manager == null) return;
+        for (int slot = 0; slot < refreshTimers.length; slot++) {
+            if (refreshIntervals[slot] == 0 || refreshTimers[slot] != null) continue;
+            this.put(slot, refreshableItems[slot].get());
+            this.writeThrough(slot);
+            startRefreshTimer(manager, slot);
         }
     }
 
+    @Override
+    public boolean isDirty() {
+        return dirty != 0;
+    }
+
     @Override
     public void clear() {
-        items.clear();
+        if (sharedItems) {
+            items = new MenuItem[items.length];
+            sharedItems = false;
+        } else {
+            Arrays.fill(items, null);
+        }
+        if (dirty == 0 && occupied != 0 && menu.isCoalescing()) menu.requestFlush();
+        dirty |= occupied;
+        occupied = 0;
+        index = null;
     }
 
     public int size() {
@@ -268,18 +643,378 @@ public final class Contents implements BukkitContents {
     Private methods
      */
 
-    enum AddResult { SUCCESSFUL, RESIZED, FAILED }
+    private void put(int slot, @Nullable MenuItem item) {
+        if (sharedItems) unshare();
+        items[slot] = item;
+        if (item == null) occupied &= ~(1L << slot);
+        else occupied |= 1L << slot;
+        if (index != null) index.update(slot);
+        if (dirty == 0 && menu.isCoalescing()) menu.requestFlush();
+        dirty |= 1L << slot;
+    }
+
+    /**
+     * Brings one slot of the inventory up to date with the contents.
+     * @return whether the slot had to be written
+     */
+    private boolean sync(Inventory inventory, int slot, boolean force) {
+        MenuItem item = items[slot];
+        if (item == null && underlay != null) item = underlay.itemAt(slot);
+        if ((refreshing & (1L << slot)) != 0) {
+            item = refreshableItems[slot].get();
+            if (sharedItems) unshare();
+            items[slot] = item;
+            if (item == null) occupied &= ~(1L << slot);
+            else occupied |= 1L << slot;
+            if (index != null) index.update(slot);
+        }
+        if (overlay != null && overlay.hasOwnItem(slot)) item = overlay.items[slot];
+
+        final ItemStack stack;
+        final int version;
+        if (item == null || (item.getVisiblity() != null && !item.getVisiblity().test(menu))) {
+            item = null;
+            stack = null;
+            version = 0;
+        } else {
+            stack = item.getItemStack();
+            version = item.getVersion();
+        }
+
+        shownItems[slot] = item;
+        if (!force && shown[slot] == stack && shownVersions[slot] == version) return false;
+        inventory.setItem(slot, stack);
+        shown[slot] = stack;
+        shownVersions[slot] = version;
+        return true;
+    }
+
+    /**
+     * Writes a single slot straight away if these contents are what the menu currently shows.
+     */
+    private void writeThrough(int slot) {
+        // never rendered, also keeps a lazily created inventory from being created here
+        if (menu.isCoalescing() || renderTarget == null) return;
+        Inventory inventory = menu.getInventory();
+        if (inventory == null || inventory != renderTarget || slot >= renderedLength()) return;
+        sync(inventory, slot, true);
+        dirty &= ~(1L << slot);
+    }
+
+    private void unshare() {
+        items = items.clone();
+        sharedItems = false;
+    }
+
+    /**
+     * Starts the timer of a timed refreshable item, the timer stops itself once nobody sees the contents,
+     * which also lets the wheel drop its reference to them.
+     */
+    private void startRefreshTimer(Menus manager, int slot) {
+        final Supplier<MenuItem> item = refreshableItems[slot];
+        refreshTimers[slot] = manager.getRefreshWheel().schedule(refreshIntervals[slot], () -> {
+            if (renderTarget == null || renderTarget.getViewers().isEmpty()) {
+                stopRefreshTimer(slot);
+                return;
+            }
+            this.put(slot, item.get());
+            this.writeThrough(slot);
+        });
+    }
+
+    private void stopRefreshTimer(int slot) {
+        if (refreshTimers == null || refreshTimers[slot] == null) return;
+        refreshTimers[slot].cancel();
+        refreshTimers[slot] = null;
+    }
+
+    private void cancelRefreshTimer(int slot) {
+        stopRefreshTimer(slot);
+        if (refreshIntervals != null) refreshIntervals[slot] = 0;
+    }
+
+    private int renderedLength() {
+        return Math.min(this.menu.size(), items.length);
+    }
+
+    private void ensureShown() {
+        if (shown != null && shown.length >= items.length) return;
+        shown = shown == null ? new ItemStack[items.length] : Arrays.copyOf(shown, items.length);
+        shownVersions = shownVersions == null ? new int[items.length] : Arrays.copyOf(shownVersions, items.length);
+        shownItems = shownItems == null ? new MenuItem[items.length] : Arrays.copyOf(shownItems, items.length);
+    }
+
+    private static long slotMask(int size) {
+        return size >= Long.SIZE ? -1L : (1L << size) - 1;
+    }
+
+    private long freeSlotMask(int startingPoint) {
+        final int size = Math.min(menu.size(), items.length);
+        if (startingPoint >= size) return 0;
+        return ~(occupied | overlayMask()) & slotMask(size) & (-1L << Math.max(startingPoint, 0));
+    }
+
+    private long overlayMask() {
+        return overlay == null ? 0 : overlay.occupied;
+    }
+
+    private boolean hasOwnItem(int slot) {
+        return slot >= 0 && slot < items.length && (occupied & (1L << slot)) != 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= items.length) return;
+        if (capacity > Long.SIZE) throw new IllegalArgumentException("Contents can hold at most " + Long.SIZE + " slots\nRequested: " + capacity);
+        items = Arrays.copyOf(items, capacity);
+        sharedItems = false;
+        if (refreshableItems != null) refreshableItems = Arrays.copyOf(refreshableItems, capacity);
+        if (refreshTimers != null) {
+            refreshTimers = Arrays.copyOf(refreshTimers, capacity);
+            refreshIntervals = Arrays.copyOf(refreshIntervals, capacity);
+        }
+        if (shown != null) ensureShown();
+        index = null;
+    }
+
+    private int removeSlots(long slots) {
+        slots &= occupied;
+        final int removed = Long.bitCount(slots);
+        while (slots != 0) {
+            int slot = Long.numberOfTrailingZeros(slots);
+            slots &= slots - 1;
+            this.put(slot, null);
+            this.writeThrough(slot);
+        }
+        return removed;
+    }
+
+    private SlotIndex index() {
+        SlotIndex current = this.index;
+        return current == null ? (this.index = new SlotIndex()) : current;
+    }
+
+    /**
+     * Reverse indexes from item ids, materials and NBT keys to the slots holding them, as slot masks.
+     * <p>
+     * Every slot remembers what it was indexed under, so a write only has to undo and redo that single slot.
+     * Materials and NBT keys can change when an item is edited in place,
+     * those slots are found by their version before a lookup and indexed again.
+     */
+    private final class SlotIndex {
+        final Map<Long, Long> ids = new HashMap<>();
+        final Map<Material, Long> materials = new EnumMap<>(Material.class);
+
+        /**
+         * Null until the first lookup by NBT key, reading the tags of an item is the expensive part of indexing it.
+         */
+        Map<String, Long> nbtKeys;
+
+        final MenuItem[] indexedItems = new MenuItem[items.length];
+        final int[] indexedVersions = new int[items.length];
+        final Material[] indexedMaterials = new Material[items.length];
+        Set<String>[] indexedKeys;
+
+        SlotIndex() {
+            long remaining = occupied;
+            while (remaining != 0) {
+                int slot = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                add(slot);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void indexNbt() {
+            if (nbtKeys != null) return;
+            nbtKeys = new HashMap<>();
+            indexedKeys = new Set[items.length];
+            long remaining = occupied;
+            while (remaining != 0) {
+                int slot = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                addKeys(slot, items[slot]);
+            }
+        }
+
+        /**
+         * Indexes the slots again whose item was edited since it was indexed.
+         */
+        void refresh() {
+            long remaining = occupied;
+            while (remaining != 0) {
+                int slot = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                if (items[slot].getVersion() != indexedVersions[slot]) update(slot);
+            }
+        }
+
+        void update(int slot) {
+            remove(slot);
+            if (items[slot] != null) add(slot);
+        }
+
+        private void add(int slot) {
+            final MenuItem item = items[slot];
+            final long bit = 1L << slot;
+            indexedItems[slot] = item;
+            indexedVersions[slot] = item.getVersion();
+            indexedMaterials[slot] = item.getType();
+            ids.merge(item.getId(), bit, (a, b) -> a | b);
+            materials.merge(indexedMaterials[slot], bit, (a, b) -> a | b);
+            if (nbtKeys != null) addKeys(slot, item);
+        }
+
+        private void addKeys(int slot, MenuItem item) {
+            final long bit = 1L << slot;
+            Set<String> keys = ItemNbt.getKeys(item.getItemStack());
+            indexedKeys[slot] = keys;
+            for (String key : keys) nbtKeys.merge(key, bit, (a, b) -> a | b);
+        }
+
+        private void remove(int slot) {
+            final MenuItem item = indexedItems[slot];
+            if (item == null) return;
+            final long bit = 1L << slot;
+            unmark(ids, item.getId(), bit);
+            unmark(materials, indexedMaterials[slot], bit);
+            if (nbtKeys != null && indexedKeys[slot] != null) {
+                for (String key : indexedKeys[slot]) unmark(nbtKeys, key, bit);
+                indexedKeys[slot] = null;
+            }
+            indexedItems[slot] = null;
+            indexedMaterials[slot] = null;
+        }
+
+        private static <K> void unmark(Map<K, Long> index, K key, long bit) {
+            index.computeIfPresent(key, (ignored, slots) -> (slots & ~bit) == 0 ? null : slots & ~bit);
+        }
+    }
+
+    /**
+     * Live map view of the slot array, only the own occupied slots are visible, not the overlay or underlay.
+     */
+    private final class SlotView extends AbstractMap<Integer, MenuItem> {
+        @Override
+        public MenuItem get(Object key) {
+            return key instanceof Integer slot && hasOwnItem(slot) ? items[slot] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public MenuItem put(Integer key, MenuItem value) {
+            MenuItem old = get(key);
+            setItem(key, value);
+            return old;
+        }
+
+        @Override
+        public MenuItem remove(Object key) {
+            return key instanceof Integer slot ? removeItem(slot) : null;
+        }
+
+        @Override
+        public int size() {
+            return itemCount();
+        }
+
+        @Override
+        public void clear() {
+            Contents.this.clear();
+        }
+
+        @Override
+        public @NotNull Set<Entry<Integer, MenuItem>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public @NotNull Iterator<Entry<Integer, MenuItem>> iterator() {
+                    return new SlotIterator();
+                }
+
+                @Override
+                public int size() {
+                    return itemCount();
+                }
+            };
+        }
+    }
+
+    private static final class MaskIterator implements PrimitiveIterator.OfInt {
+        private long slots;
+
+        MaskIterator(long slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slots != 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (slots == 0) throw new NoSuchElementException();
+            int slot = Long.numberOfTrailingZeros(slots);
+            slots &= slots - 1;
+            return slot;
+        }
+    }
+
+    private final class SlotIterator implements Iterator<Map.Entry<Integer, MenuItem>> {
+        private int next = advance(0), last = -1;
+
+        private int advance(int from) {
+            if (from >= Long.SIZE) return -1;
+            long remaining = occupied & (-1L << from);
+            return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != -1;
+        }
+
+        @Override
+        public Map.Entry<Integer, MenuItem> next() {
+            if (next == -1) throw new NoSuchElementException();
+            last = next;
+            next = advance(last + 1);
+            return new SlotEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1) throw new IllegalStateException();
+            removeItem(last);
+            last = -1;
+        }
+    }
+
+    private final class SlotEntry implements Map.Entry<Integer, MenuItem> {
+        private final int slot;
+
+        SlotEntry(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public Integer getKey() {
+            return slot;
+        }
+
+        @Override
+        public MenuItem getValue() {
+            return items[slot];
+        }
 
-    @SuppressWarnings("MethodCallInLoopCondition") // only for those with the optimization inspections.
-    AddResult add(int slot, int itemIndex, @NotNull final MenuItem guiItem, @NotNull final List<MenuItem> notAddedItems, MenuItem... loopingOver) {
-        int size = menu.size();
-        if (slot >= size) {
-            if (menu.rows() == 6) return AddResult.FAILED;
-            List<MenuItem> unaddedItems = ImmutableList.copyOf(loopingOver);
-            notAddedItems.addAll(itemIndex == 0 ? unaddedItems : unaddedItems.subList(itemIndex, size));
-            return AddResult.RESIZED;
+        @Override
+        public MenuItem setValue(MenuItem value) {
+            MenuItem old = items[slot];
+            put(slot, value);
+            return old;
         }
-        items.put(slot, guiItem);
-        return AddResult.SUCCESSFUL;
     }
 }
@@ -19,6 +19,11 @@ public class ObjectIterator<T> {
     private Predicate<T> filter = null;
     private Comparator<T> sorter = null;
 
+    /**
+     * The filtered elements, sorted only as far as a page needed them; dropped whenever the elements or the order change.
+     */
+    private PartialSort<T> view;
+
     public void onEmpty(Consumer<BukkitContents> onEmptyItems) {
         this.onEmptyItems = onEmptyItems;
     }
@@ -28,7 +33,7 @@ public class ObjectIterator<T> {
     private boolean applying = false;
 
     private int position, next;
-    private final int size;
+    private final int size, startingSlot;
 
     private final Menu menu;
 
@@ -36,7 +41,9 @@ public class ObjectIterator<T> {
         this.menu = menu;
         this.size = menu.size();
         this.mappedObjects = new ArrayList<>(size);
-        this.position = new Slot(startingRow, startingCol).slot();
+        this.menuItemCreateFunction = menuItemCreateFunction;
+        this.startingSlot = new Slot(startingRow, startingCol).slot();
+        this.position = startingSlot;
     }
 
     public boolean hasNext() {
@@ -49,47 +56,105 @@ public class ObjectIterator<T> {
 
     public ObjectIterator<T> sort(Priority priority, Comparator<T> sorter) {
         this.sorter = sorter;
+        this.view = null;
         return this;
     }
 
     public ObjectIterator<T> filter(Predicate<T> filter) {
         this.filter = filter;
+        this.view = null;
         return this;
     }
 
     public ObjectIterator<T> add(Collection<T> elements) {
         this.mappedObjects.addAll(elements);
+        this.view = null;
         return this;
     }
 
     public ObjectIterator<T> add(T element) {
         this.mappedObjects.add(element);
+        this.view = null;
         return this;
     }
 
+    /**
+     * Places the first elements from the current position on, only the elements that fit are sorted.
+     * Elements without an item don't take a slot, the selection grows until the slots are filled.
+     * @return the iterator for chaining
+     */
     public ObjectIterator<T> apply() {
         this.applying = true;
-        List<T> filteredObjects = new ArrayList<>(this.mappedObjects);
+        final PartialSort<T> view = view();
 
-        filteredObjects.removeIf((object) -> !filter.test(object));
-        filteredObjects.sort(sorter);
+        if (view.size() == 0 && this.onEmptyItems != null) {
+            this.onEmptyItems.accept(this.menu.contents());
+            this.applying = false;
+            return this;
+        }
 
-        if (filteredObjects.isEmpty() && this.onEmptyItems != null) {
+        int selected = 0;
+        while (hasNext()) {
+            List<T> window = view.range(selected, selected + size - position);
+            if (window.isEmpty()) break;
+            selected += window.size();
+            for (T value : window) {
+                MenuItem item = this.menuItemCreateFunction.apply(value);
+                if (item == null) continue;
+                this.menu.setItem(this.next(), item);
+            }
+        }
+        this.applying = false;
+        return this;
+    }
+
+    /**
+     * Replaces the slots from the starting slot on with a page of the elements.
+     * <p>
+     * Pages are sorted on demand, so showing page 0 only selects the first page of elements
+     * and later pages only sort the elements up to their end.
+     * @param page the page, starting at 0
+     * @return the iterator for chaining
+     */
+    public ObjectIterator<T> applyPage(int page) {
+        if (page < 0) throw new IllegalArgumentException("Page can't be negative\nPage: " + page + "\nFix: Pages start at 0");
+        this.applying = true;
+        final int perPage = size - startingSlot;
+        List<T> window = view().range(page * perPage, (page + 1) * perPage);
+
+        this.position = startingSlot;
+        if (window.isEmpty() && this.onEmptyItems != null) {
             this.onEmptyItems.accept(this.menu.contents());
             this.applying = false;
             return this;
         }
 
-        for (T value : filteredObjects) {
-            if (!hasNext()) break;
+        for (T value : window) {
             MenuItem item = this.menuItemCreateFunction.apply(value);
-            if (item == null) continue;
-            this.menu.setItem(this.next(), item);
+            if (item != null) this.menu.setItem(this.next(), item);
         }
+        while (hasNext()) this.menu.removeItem(this.next());
         this.applying = false;
         return this;
     }
 
+    /**
+     * @return the amount of pages {@link #applyPage(int)} can show
+     */
+    public int pageCount() {
+        final int perPage = size - startingSlot;
+        return perPage <= 0 ? 0 : (view().size() + perPage - 1) / perPage;
+    }
+
+    private PartialSort<T> view() {
+        PartialSort<T> current = this.view;
+        if (current != null) return current;
+
+        List<T> filteredObjects = new ArrayList<>(this.mappedObjects);
+        if (filter != null) filteredObjects.removeIf((object) -> !filter.test(object));
+        return this.view = new PartialSort<>(filteredObjects, sorter);
+    }
+
     public Function<T, MenuItem> getMenuItemCreateFunction() {
         return menuItemCreateFunction;
     }
@@ -97,4 +162,108 @@ public class ObjectIterator<T> {
     public boolean isApplying() {
         return applying;
     }
+
+    /**
+     * A list that is sorted front to back only as far as it is read.
+     * <p>
+     * Extending the sorted part by {@code k} elements selects them with a bounded heap of {@code k} indices,
+     * O(n log k) instead of sorting all n elements. Ties are broken by the original index, so the order is stable.
+     */
+    private static final class PartialSort<T> {
+        private final List<T> sorted;
+        private final Comparator<T> sorter;
+        private List<T> rest;
+
+        PartialSort(List<T> elements, Comparator<T> sorter) {
+            this.sorter = sorter;
+            if (sorter == null) {
+                this.sorted = elements;
+                this.rest = Collections.emptyList();
+            } else {
+                this.sorted = new ArrayList<>(Math.min(elements.size(), 64));
+                this.rest = elements;
+            }
+        }
+
+        int size() {
+            return sorted.size() + rest.size();
+        }
+
+        List<T> range(int from, int to) {
+            to = Math.min(to, size());
+            if (from >= to) return Collections.emptyList();
+            if (to > sorted.size()) extend(to - sorted.size());
+            return sorted.subList(from, to);
+        }
+
+        private void extend(int count) {
+            final List<T> rest = this.rest;
+            final int length = rest.size();
+            if (count >= length) {
+                rest.sort(sorter);
+                sorted.addAll(rest);
+                this.rest = Collections.emptyList();
+                return;
+            }
+
+            // max-heap of the smallest indices seen so far, the largest of them on top
+            final int[] heap = new int[count];
+            int heapSize = 0;
+            for (int index = 0; index < length; index++) {
+                if (heapSize < count) {
+                    heap[heapSize] = index;
+                    siftUp(heap, heapSize++);
+                } else if (compare(index, heap[0]) < 0) {
+                    heap[0] = index;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            // popping yields the largest first, so the selection is filled from the back
+            final int[] selected = new int[count];
+            final BitSet taken = new BitSet(length);
+            for (int i = count - 1; i >= 0; i--) {
+                selected[i] = heap[0];
+                taken.set(heap[0]);
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize);
+            }
+            for (int index : selected) sorted.add(rest.get(index));
+
+            List<T> remaining = new ArrayList<>(length - count);
+            for (int index = 0; index < length; index++) if (!taken.get(index)) remaining.add(rest.get(index));
+            this.rest = remaining;
+        }
+
+        private int compare(int a, int b) {
+            int compared = sorter.compare(rest.get(a), rest.get(b));
+            return compared != 0 ? compared : Integer.compare(a, b);
+        }
+
+        private void siftUp(int[] heap, int at) {
+            final int index = heap[at];
+            while (at > 0) {
+                int parent = (at - 1) >>> 1;
+                if (compare(index, heap[parent]) <= 0) break;
+                heap[at] = heap[parent];
+                at = parent;
+            }
+            heap[at] = index;
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            if (heapSize == 0) return;
+            final int index = heap[0];
+            int at = 0;
+            while (true) {
+                int child = (at << 1) + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize && compare(heap[child + 1], heap[child]) > 0) child++;
+                if (compare(index, heap[child]) >= 0) break;
+                heap[at] = heap[child];
+                at = child;
+            }
+            heap[at] = index;
+        }
+    }
 }
@@ -0,0 +1,374 @@
+package me.flame.menus.menu.iterator;
+
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.Menu;
+import me.flame.menus.menu.Slot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A live, filtered and sorted view of objects shown page by page in a menu.
+ * <p>
+ * Unlike {@link ObjectIterator} the view is updated with single element changes:
+ * {@link #add(Object)}, {@link #remove(Object)} and {@link #update(Object)} take O(log n) to reposition the element,
+ * and only the slots of the visible page whose element moved or changed are written.
+ * An element moving to another slot of the visible page keeps its menu item.
+ * <p>
+ * Elements are tracked by {@link Object#equals(Object)}, so their hash code must not depend on what {@link #update(Object)} reports.
+ * Ties of the sorter keep the order the elements were added in.
+ * <pre>{@code
+ *      ObjectView<Listing> view = new ObjectView<>(menu, 1, 1, Listing::toItem)
+ *              .sort(Comparator.comparingLong(Listing::price))
+ *              .filter(listing -> !listing.isExpired());
+ *      view.addAll(listings);
+ *      ...
+ *      listing.setPrice(price);
+ *      view.update(listing);
+ * }</pre>
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class ObjectView<T> {
+    private final Menu menu;
+    private final Function<T, MenuItem> menuItemCreateFunction;
+    private final int startingSlot, perPage;
+
+    private Comparator<T> sorter;
+    private Predicate<T> filter;
+
+    private final Map<T, Node<T>> nodes = new HashMap<>();
+    private Node<T> root;
+    private long sequence;
+    private int seed = 0x2545F491;
+
+    private int page;
+    private final Object[] shownElements;
+    private final MenuItem[] shownItems;
+
+    public ObjectView(@NotNull Menu menu, int startingRow, int startingCol, @NotNull Function<T, MenuItem> menuItemCreateFunction) {
+        this.menu = Objects.requireNonNull(menu);
+        this.menuItemCreateFunction = Objects.requireNonNull(menuItemCreateFunction);
+        this.startingSlot = new Slot(startingRow, startingCol).slot();
+        this.perPage = Math.max(menu.size() - startingSlot, 0);
+        this.shownElements = new Object[perPage];
+        this.shownItems = new MenuItem[perPage];
+    }
+
+    /**
+     * Changes the order, every element is sorted again.
+     * @param sorter the order or null for the order the elements were added in
+     * @return the view for chaining
+     */
+    public ObjectView<T> sort(@Nullable Comparator<T> sorter) {
+        this.sorter = sorter;
+        rebuild();
+        return this;
+    }
+
+    /**
+     * Changes the filter, every element is tested again.
+     * @param filter the filter or null to show every element
+     * @return the view for chaining
+     */
+    public ObjectView<T> filter(@Nullable Predicate<T> filter) {
+        this.filter = filter;
+        rebuild();
+        return this;
+    }
+
+    public void add(@NotNull T element) {
+        if (nodes.containsKey(element)) {
+            update(element);
+            return;
+        }
+        Node<T> node = new Node<>(element, sequence++, nextPriority());
+        nodes.put(element, node);
+        if (!test(element)) return;
+        int rank = insert(node);
+        patch(rank, size() - 1, null);
+    }
+
+    public void addAll(@NotNull Collection<? extends T> elements) {
+        for (T element : elements) {
+            if (nodes.containsKey(element)) continue;
+            Node<T> node = new Node<>(element, sequence++, nextPriority());
+            nodes.put(element, node);
+            if (test(element)) insert(node);
+        }
+        render();
+    }
+
+    public boolean remove(@NotNull T element) {
+        Node<T> node = nodes.remove(element);
+        if (node == null) return false;
+        if (!node.inTree) return true;
+        int rank = delete(node);
+        patch(rank, size(), null);
+        return true;
+    }
+
+    /**
+     * Repositions the element after it changed, and writes its slot again if it stays visible.
+     * @param element the changed element
+     * @return false if the element isn't part of the view
+     */
+    public boolean update(@NotNull T element) {
+        Node<T> node = nodes.get(element);
+        if (node == null) return false;
+
+        int from = node.inTree ? delete(node) : -1;
+        node.value = element;
+        int to = test(element) ? insert(node) : -1;
+
+        if (from == -1 && to == -1) return true;
+        if (from == -1) patch(to, size() - 1, null);
+        else if (to == -1) patch(from, size(), null);
+        else patch(Math.min(from, to), Math.max(from, to), element);
+        return true;
+    }
+
+    /**
+     * Shows another page, only the slots that differ from the previous page are written.
+     * @param page the page, starting at 0
+     */
+    public void page(int page) {
+        if (page < 0) throw new IllegalArgumentException("Page can't be negative\nPage: " + page + "\nFix: Pages start at 0");
+        this.page = page;
+        render();
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int pageCount() {
+        return perPage == 0 ? 0 : (size() + perPage - 1) / perPage;
+    }
+
+    /**
+     * @return the amount of elements passing the filter
+     */
+    public int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    /**
+     * @param index the position in the sorted, filtered order
+     * @return the element at the position
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        return select(index).value;
+    }
+
+    public boolean contains(@NotNull T element) {
+        return nodes.containsKey(element);
+    }
+
+    /**
+     * Compares every slot of the visible page against the order and writes the ones that differ.
+     */
+    public void render() {
+        patch(page * perPage, (page + 1) * perPage - 1, null);
+    }
+
+    /*
+    Rendering
+     */
+
+    /**
+     * Writes the slots of the visible page between the two positions of the order, inclusive.
+     * @param changed an element whose item must be created again even if it is already shown, or null
+     */
+    private void patch(int fromRank, int toRank, @Nullable T changed) {
+        final int first = page * perPage;
+        final int from = Math.max(fromRank, first) - first, to = Math.min(toRank, first + perPage - 1) - first;
+        if (from > to) return;
+
+        // items of elements already on the page are reused when the element only moved
+        Map<Object, MenuItem> moved = new IdentityHashMap<>();
+        for (int index = from; index <= to; index++) {
+            if (shownElements[index] != null && shownElements[index] != changed) moved.put(shownElements[index], shownItems[index]);
+        }
+
+        final int size = size();
+        for (int index = from; index <= to; index++) {
+            final int rank = first + index;
+            final T element = rank < size ? select(rank).value : null;
+            if (element == shownElements[index] && (element == null || element != changed)) continue;
+
+            MenuItem item = element == null ? null : moved.get(element);
+            if (element != null && item == null) item = menuItemCreateFunction.apply(element);
+
+            final int slot = startingSlot + index;
+            if (item == null) menu.removeItem(slot);
+            else menu.setItem(slot, item);
+            shownElements[index] = element;
+            shownItems[index] = item;
+        }
+    }
+
+    private void rebuild() {
+        this.root = null;
+        List<Node<T>> ordered = new ArrayList<>(nodes.values());
+        ordered.sort(Comparator.comparingLong(node -> node.sequence));
+        for (Node<T> node : ordered) {
+            node.inTree = false;
+            node.left = node.right = node.parent = null;
+            node.size = 1;
+            if (test(node.value)) insert(node);
+        }
+        render();
+    }
+
+    private boolean test(T element) {
+        return filter == null || filter.test(element);
+    }
+
+    /*
+    Treap keyed implicitly by position, ordered by the sorter and then by insertion
+     */
+
+    private int compare(Node<T> a, Node<T> b) {
+        int compared = sorter == null ? 0 : sorter.compare(a.value, b.value);
+        return compared != 0 ? compared : Long.compare(a.sequence, b.sequence);
+    }
+
+    /**
+     * @return the position the node was inserted at
+     */
+    private int insert(Node<T> node) {
+        int rank = 0;
+        for (Node<T> current = root; current != null; ) {
+            if (compare(node, current) < 0) {
+                current = current.left;
+            } else {
+                rank += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+
+        Node<T>[] parts = split(root, rank);
+        node.left = node.right = node.parent = null;
+        node.size = 1;
+        node.inTree = true;
+        this.root = merge(merge(parts[0], node), parts[1]);
+        this.root.parent = null;
+        return rank;
+    }
+
+    /**
+     * @return the position the node was removed from
+     */
+    private int delete(Node<T> node) {
+        int rank = rank(node);
+        Node<T>[] left = split(root, rank);
+        Node<T>[] right = split(left[1], 1);
+        this.root = merge(left[0], right[1]);
+        if (root != null) root.parent = null;
+        node.inTree = false;
+        node.left = node.right = node.parent = null;
+        node.size = 1;
+        return rank;
+    }
+
+    private int rank(Node<T> node) {
+        int rank = size(node.left);
+        for (Node<T> current = node; current.parent != null; current = current.parent) {
+            if (current.parent.right == current) rank += size(current.parent.left) + 1;
+        }
+        return rank;
+    }
+
+    private Node<T> select(int index) {
+        Node<T> current = root;
+        while (current != null) {
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index == leftSize) {
+                return current;
+            } else {
+                index -= leftSize + 1;
+                current = current.right;
+            }
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    /**
+     * Splits the tree into the first {@code count} nodes and the rest.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] split(Node<T> node, int count) {
+        if (node == null) return new Node[] { null, null };
+        if (size(node.left) < count) {
+            Node<T>[] parts = split(node.right, count - size(node.left) - 1);
+            node.right = parts[0];
+            node.pull();
+            if (parts[1] != null) parts[1].parent = null;
+            parts[0] = node;
+            return parts;
+        }
+        Node<T>[] parts = split(node.left, count);
+        node.left = parts[1];
+        node.pull();
+        if (parts[0] != null) parts[0].parent = null;
+        parts[1] = node;
+        return parts;
+    }
+
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.pull();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.pull();
+        return right;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private int nextPriority() {
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        return seed = x;
+    }
+
+    private static final class Node<T> {
+        T value;
+        final long sequence;
+        final int priority;
+        int size = 1;
+        boolean inTree;
+        Node<T> left, right, parent;
+
+        Node(T value, long sequence, int priority) {
+            this.value = value;
+            this.sequence = sequence;
+            this.priority = priority;
+        }
+
+        /**
+         * Recomputes the size and adopts the children.
+         */
+        void pull() {
+            size = 1 + ObjectView.size(left) + ObjectView.size(right);
+            if (left != null) left.parent = this;
+            if (right != null) right.parent = this;
+        }
+    }
+}
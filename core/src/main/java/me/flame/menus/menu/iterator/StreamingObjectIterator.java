@@ -0,0 +1,235 @@
+package me.flame.menus.menu.iterator;
+
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.Menu;
+import me.flame.menus.menu.Slot;
+import me.flame.menus.menu.contents.BukkitContents;
+import me.flame.menus.menu.pagination.IndexedPagination;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Fills menus from a source of objects without copying the source.
+ * <p>
+ * The source is pulled one element at a time and the filter is applied while pulling,
+ * so only the elements that land in the requested pages are ever turned into menu items.
+ * Without a sorter the source is only pulled until those pages are full.
+ * With a sorter every element is looked at once, but only the elements up to the end of the requested pages are kept.
+ * <pre>{@code
+ *      StreamingObjectIterator.of(listings.stream(), Listing::toItem)
+ *              .filter(listing -> !listing.isExpired())
+ *              .sort(Comparator.comparingLong(Listing::price))
+ *              .fill(menu, 2, 1);
+ * }</pre>
+ * The source can only be consumed once, so every iterator fills once.
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class StreamingObjectIterator<T> {
+    private final Spliterator<T> source;
+    private final Function<T, MenuItem> menuItemCreateFunction;
+
+    private Predicate<T> filter;
+    private Comparator<T> sorter;
+    private Consumer<BukkitContents> onEmptyItems;
+
+    private int startingSlot;
+    private boolean consumed, exhausted;
+
+    private StreamingObjectIterator(@NotNull Spliterator<T> source, @NotNull Function<T, MenuItem> menuItemCreateFunction) {
+        this.source = Objects.requireNonNull(source);
+        this.menuItemCreateFunction = Objects.requireNonNull(menuItemCreateFunction);
+    }
+
+    @Contract("_, _ -> new")
+    public static <T> @NotNull StreamingObjectIterator<T> of(@NotNull Spliterator<T> source, @NotNull Function<T, MenuItem> menuItemCreateFunction) {
+        return new StreamingObjectIterator<>(source, menuItemCreateFunction);
+    }
+
+    @Contract("_, _ -> new")
+    public static <T> @NotNull StreamingObjectIterator<T> of(@NotNull Iterator<T> source, @NotNull Function<T, MenuItem> menuItemCreateFunction) {
+        return new StreamingObjectIterator<>(Spliterators.spliteratorUnknownSize(source, Spliterator.ORDERED), menuItemCreateFunction);
+    }
+
+    @Contract("_, _ -> new")
+    public static <T> @NotNull StreamingObjectIterator<T> of(@NotNull Stream<T> source, @NotNull Function<T, MenuItem> menuItemCreateFunction) {
+        return new StreamingObjectIterator<>(source.spliterator(), menuItemCreateFunction);
+    }
+
+    public StreamingObjectIterator<T> filter(@Nullable Predicate<T> filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    public StreamingObjectIterator<T> sort(@Nullable Comparator<T> sorter) {
+        this.sorter = sorter;
+        return this;
+    }
+
+    public StreamingObjectIterator<T> onEmpty(@Nullable Consumer<BukkitContents> onEmptyItems) {
+        this.onEmptyItems = onEmptyItems;
+        return this;
+    }
+
+    /**
+     * Sets the first slot of every page the objects are placed from, only empty slots are used.
+     * @param startingRow the row, starting at 1
+     * @param startingCol the column, starting at 1
+     * @return the iterator for chaining
+     */
+    public StreamingObjectIterator<T> startingAt(int startingRow, int startingCol) {
+        this.startingSlot = new Slot(startingRow, startingCol).slot();
+        return this;
+    }
+
+    /**
+     * Fills the empty slots of the visible contents of the menu.
+     * @param menu the menu
+     * @return the amount of elements used
+     */
+    public int fill(@NotNull Menu menu) {
+        start();
+        int[] slots = freeSlots(menu.contents());
+        List<T> window = window(0, slots.length);
+        if (window.isEmpty()) {
+            if (onEmptyItems != null) onEmptyItems.accept(menu.contents());
+            return 0;
+        }
+        int placed = place(menu.contents(), slots, window, 0);
+        menu.update();
+        return placed;
+    }
+
+    /**
+     * Fills pages of the menu, as if every page before {@code fromPage} was filled as well.
+     * <p>
+     * Every page is expected to leave as many slots empty as the page at {@code fromPage}.
+     * The elements before the window are skipped without creating items for them.
+     * @param menu the menu
+     * @param fromPage the first page to fill
+     * @param pageCount the maximum amount of pages to fill, the elements past them are left in the source
+     * @return the amount of elements used
+     */
+    public int fill(@NotNull IndexedPagination menu, int fromPage, int pageCount) {
+        if (fromPage < 0 || pageCount < 1) throw new IllegalArgumentException("Invalid page window\nFrom page: " + fromPage + ", page count: " + pageCount + "\nFix: The first page can't be negative and at least one page must be filled");
+        start();
+        BukkitContents first = menu.getPage(fromPage);
+        if (first == null) return 0;
+
+        final int perPage = freeSlots(first).length;
+        final int lastPage = Math.min(menu.getPagesSize(), fromPage + pageCount);
+        List<T> window = window(fromPage * perPage, (lastPage - fromPage) * perPage);
+        if (window.isEmpty()) {
+            if (onEmptyItems != null) onEmptyItems.accept(first);
+            return 0;
+        }
+
+        int placed = 0;
+        for (int pageIndex = fromPage; pageIndex < lastPage && placed < window.size(); pageIndex++) {
+            BukkitContents page = menu.getPage(pageIndex);
+            if (page == null) break;
+            placed += place(page, freeSlots(page), window, placed);
+        }
+        menu.update();
+        return placed;
+    }
+
+    /**
+     * Fills pages of the menu from the first page on, spilling into the next pages until the menu runs out of pages.
+     * @param menu the menu
+     * @return the amount of elements used
+     */
+    public int fill(@NotNull IndexedPagination menu) {
+        return fill(menu, 0, Math.max(menu.getPagesSize(), 1));
+    }
+
+    /**
+     * @return whether the source may have elements left after the fill, always false after a sorted fill
+     */
+    public boolean hasRemaining() {
+        return consumed && !exhausted;
+    }
+
+    public Function<T, MenuItem> getMenuItemCreateFunction() {
+        return menuItemCreateFunction;
+    }
+
+    private void start() {
+        if (consumed) throw new IllegalStateException("The source of this iterator was already consumed\nFix: Create a new iterator for every fill");
+        this.consumed = true;
+    }
+
+    /**
+     * Pulls the matching elements from {@code skip} to {@code skip + limit}, in order.
+     */
+    private List<T> window(int skip, int limit) {
+        if (limit <= 0) return Collections.emptyList();
+        return sorter == null ? streamWindow(skip, limit) : sortedWindow(skip, limit);
+    }
+
+    private List<T> streamWindow(int skip, int limit) {
+        final List<T> window = new ArrayList<>(limit);
+        final int[] skipped = { 0 };
+        final Consumer<T> collector = element -> {
+            if (filter != null && !filter.test(element)) return;
+            if (skipped[0] < skip) skipped[0]++;
+            else window.add(element);
+        };
+        boolean more = true;
+        while (more && window.size() < limit) more = source.tryAdvance(collector);
+        this.exhausted = !more;
+        return window;
+    }
+
+    /**
+     * Keeps the smallest {@code skip + limit} elements in a heap with the largest on top, then drops the skipped ones.
+     */
+    private List<T> sortedWindow(int skip, int limit) {
+        final int keep = skip + limit;
+        final Comparator<T> sorter = this.sorter;
+        final PriorityQueue<T> heap = new PriorityQueue<>(Math.min(keep, 1024) + 1, sorter.reversed());
+        source.forEachRemaining(element -> {
+            if (filter != null && !filter.test(element)) return;
+            if (heap.size() < keep) heap.add(element);
+            else if (sorter.compare(element, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(element);
+            }
+        });
+        this.exhausted = true;
+
+        List<T> sorted = new ArrayList<>(heap);
+        sorted.sort(sorter);
+        return skip >= sorted.size() ? Collections.emptyList() : sorted.subList(skip, sorted.size());
+    }
+
+    /**
+     * Places the elements from the window into the slots, elements without an item don't take a slot.
+     * @return the amount of elements of the window used
+     */
+    private int place(BukkitContents contents, int[] slots, List<T> window, int from) {
+        int used = 0, slotIndex = 0;
+        while (slotIndex < slots.length && from + used < window.size()) {
+            MenuItem item = menuItemCreateFunction.apply(window.get(from + used++));
+            if (item != null) contents.setItem(slots[slotIndex++], item);
+        }
+        return used;
+    }
+
+    private int[] freeSlots(BukkitContents contents) {
+        final int size = contents.size();
+        int[] slots = new int[size];
+        int count = 0;
+        PrimitiveIterator.OfInt free = contents.freeSlots(startingSlot);
+        while (free.hasNext() && count < size) slots[count++] = free.nextInt();
+        return Arrays.copyOf(slots, count);
+    }
+}
@@ -5,8 +5,10 @@ import me.flame.menus.menu.Structure;
 import me.flame.menus.menu.contents.BukkitContents;
 import me.flame.menus.menu.opener.MenuOpener;
 import me.flame.menus.menu.pagination.IndexedPagination;
+import me.flame.menus.menu.pagination.LazyPages;
 import net.kyori.adventure.text.Component;
 import org.apache.commons.lang3.tuple.Pair;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
@@ -23,6 +25,14 @@ public interface PagedMenuLoader {
 
     List<BukkitContents> load(IndexedPagination menu);
 
+    /**
+     * Builds the pages on demand instead, {@link #load(IndexedPagination)} and {@link #pageCount()} aren't called when this isn't null.
+     * @return where the pages come from, or null to load every page up front
+     */
+    default @Nullable LazyPages lazyPages() {
+        return null;
+    }
+
     int pageCount();
 
     Pair<Integer, MenuItem> nextItem();
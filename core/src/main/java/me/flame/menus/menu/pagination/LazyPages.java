@@ -0,0 +1,48 @@
+package me.flame.menus.menu.pagination;
+
+import me.flame.menus.menu.contents.BukkitContents;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.IntSupplier;
+
+/**
+ * Where a lazily paginated menu gets its pages from.
+ * <p>
+ * A page is built by the factory the first time it is viewed and cached afterwards,
+ * once more than {@code cachedPages} pages are built the least recently viewed one is dropped and built again when it is needed.
+ * Changes made to a dropped page are lost, so the factory should be the source of truth.
+ * <pre>{@code
+ *      var pages = new LazyPages(() -> (listings.size() + 44) / 45, (menu, page) -> createListingPage(menu, page));
+ * }</pre>
+ * @param pageCount the amount of pages, asked every time the menu needs it
+ * @param factory builds a page
+ * @param cachedPages the maximum amount of built pages kept
+ * @since 3.0.0
+ */
+public record LazyPages(@NotNull IntSupplier pageCount, @NotNull Factory factory, int cachedPages) {
+    public static final int DEFAULT_CACHED_PAGES = 8;
+
+    public LazyPages {
+        Objects.requireNonNull(pageCount);
+        Objects.requireNonNull(factory);
+        if (cachedPages < 1) throw new IllegalArgumentException("At least one page must be cached\nCached pages: " + cachedPages + "\nFix: Use a value above 0");
+    }
+
+    public LazyPages(@NotNull IntSupplier pageCount, @NotNull Factory factory) {
+        this(pageCount, factory, DEFAULT_CACHED_PAGES);
+    }
+
+    @FunctionalInterface
+    public interface Factory {
+        /**
+         * Builds a page, the page items of the menu are added on top of it afterwards.
+         * @param menu the menu the page is for
+         * @param pageIndex the index of the page
+         * @return the page, or null if there is no such page
+         */
+        @Nullable BukkitContents create(@NotNull IndexedPagination menu, int pageIndex);
+    }
+}
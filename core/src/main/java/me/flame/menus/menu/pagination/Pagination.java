@@ -3,11 +3,13 @@ package me.flame.menus.menu.pagination;
 import com.google.common.collect.ImmutableSet;
 
 import me.flame.menus.menu.contents.BukkitContents;
+import me.flame.menus.menu.contents.Contents;
 import me.flame.menus.items.MenuItem;
 import me.flame.menus.menu.Menu;
 import org.bukkit.entity.HumanEntity;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Map;
@@ -16,9 +18,23 @@ import java.util.Set;
 @SuppressWarnings({ "unused" })
 public interface Pagination<T> extends Menu {
     default void setPageItems(BukkitContents items) {
+        Contents overlay = pageOverlay();
+        if (overlay != null) {
+            items.setOverlay(overlay);
+            return;
+        }
         for (Map.Entry<Integer, MenuItem> entry : pageItems().entrySet()) items.setItem(entry.getKey(), entry.getValue());
     }
 
+    /**
+     * The page items as one layer shown over whichever page is visible, null if they are copied into every page.
+     * @return the overlay
+     */
+    @ApiStatus.Internal
+    default @Nullable Contents pageOverlay() {
+        return null;
+    }
+
     default void addPageItems(MenuItem... items) {
         for (BukkitContents page : pages()) page.addItem(items);
     }
@@ -32,22 +48,54 @@ public interface Pagination<T> extends Menu {
     Class<T> indexClass();
 
     default void removePageItem(int slot) {
-        for (BukkitContents page : pages()) page.removeItem(slot);
+        Contents overlay = pageOverlay();
+        if (overlay == null) {
+            for (BukkitContents page : pages()) page.removeItem(slot);
+            return;
+        }
+        this.pageItems().remove(slot);
+        overlay.removeItem(slot);
+        writeThroughUnlayered(slot, null);
+        pageItemsChanged(slot);
     }
 
     default void removePageItem(MenuItem slot) {
-        for (BukkitContents page : pages()) page.removeItem(slot);
+        removePageItem(new MenuItem[] { slot });
     }
 
     default void removePageItem(MenuItem... slot) {
+        Contents overlay = pageOverlay();
+        if (overlay == null) {
+            for (BukkitContents page : pages()) page.removeItem(slot);
+            return;
+        }
         Set<MenuItem> set = ImmutableSet.copyOf(slot);
-        for (BukkitContents page : pages()) page.removeItem(slot);
+        int[] removed = this.pageItems().entrySet().stream()
+                .filter(entry -> set.contains(entry.getValue()))
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+        for (int index : removed) {
+            this.pageItems().remove(index);
+            overlay.removeItem(index);
+            writeThroughUnlayered(index, null);
+        }
+        pageItemsChanged(removed);
     }
 
     default void setPageItem(int[] slots, MenuItem @NotNull [] items) {
         int length = slots.length;
 
         if (length != items.length) throw new IllegalArgumentException("Number of slots and number of items must be equal.");
+        Contents overlay = pageOverlay();
+        if (overlay != null) {
+            for (int i = 0; i < length; i++) {
+                this.pageItems().put(slots[i], items[i]);
+                overlay.setItem(slots[i], items[i]);
+                writeThroughUnlayered(slots[i], items[i]);
+            }
+            pageItemsChanged(slots);
+            return;
+        }
         for (BukkitContents page : pages()) {
             for (int i = 0; i < length; i++) {
                 page.setItem(slots[i], items[i]);
@@ -61,10 +109,27 @@ public interface Pagination<T> extends Menu {
 
     default void setPageItem(int slot, MenuItem item) {
         this.pageItems().put(slot, item);
-        for (BukkitContents page : pages()) page.setItem(slot, item);
+        Contents overlay = pageOverlay();
+        if (overlay == null) {
+            for (BukkitContents page : pages()) page.setItem(slot, item);
+            return;
+        }
+        overlay.setItem(slot, item);
+        writeThroughUnlayered(slot, item);
+        pageItemsChanged(slot);
     }
 
     default void setPageItem(int[] slots, MenuItem item) {
+        Contents overlay = pageOverlay();
+        if (overlay != null) {
+            for (int slot : slots) {
+                this.pageItems().put(slot, item);
+                overlay.setItem(slot, item);
+                writeThroughUnlayered(slot, item);
+            }
+            pageItemsChanged(slots);
+            return;
+        }
         for (BukkitContents page : pages()) {
             for (int slot : slots) {
                 page.setItem(slot, item);
@@ -73,6 +138,27 @@ public interface Pagination<T> extends Menu {
         }
     }
 
+    /**
+     * Pages that can't layer only received a copy of the overlay, they get every later change copied as well.
+     */
+    private void writeThroughUnlayered(int slot, @Nullable MenuItem item) {
+        for (BukkitContents page : pages()) {
+            if (page instanceof Contents) continue;
+            if (item == null) page.removeItem(slot);
+            else page.setItem(slot, item);
+        }
+    }
+
+    /**
+     * Renders the changed slots of the overlay on the visible page.
+     */
+    private void pageItemsChanged(int... slots) {
+        BukkitContents visible = contents();
+        if (visible == null) return;
+        for (int slot : slots) visible.markDirty(slot);
+        update();
+    }
+
     /**
      * Goes to the specified page
      *
@@ -0,0 +1,154 @@
+package me.flame.menus.menu.view;
+
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.MenuImpl;
+import me.flame.menus.menu.Menus;
+import me.flame.menus.menu.contents.Contents;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+
+/**
+ * One shared menu shown to many players, where each player can have their own items in some slots.
+ * <p>
+ * The base menu holds the slots every player sees. Every player gets a view, a menu with its own inventory
+ * whose contents only hold the slots that differ for them; the remaining slots are read from the base.
+ * Actions and slot actions of the base are shared by every view.
+ * The view of a player is released when they quit, or through {@link #removeView(UUID)}.
+ * <pre>{@code
+ *      var view = MenuView.of(cosmeticsMenu);
+ *      view.view(player).setItem(13, ownedCosmetic(player));
+ *      view.open(player);
+ *
+ *      // changing the base, then pushing the changed slots to every view
+ *      cosmeticsMenu.setItem(4, balanceItem);
+ *      view.update();
+ * }</pre>
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class MenuView {
+    private final MenuImpl base;
+    private final Map<UUID, MenuImpl> views = new HashMap<>(16);
+    private final Map<UUID, Contents> layers = new HashMap<>(16);
+
+    /**
+     * What the views were last told about the base.
+     */
+    private final ItemStack[] baseShown;
+    private final int[] baseVersions;
+
+    private MenuView(MenuImpl base) {
+        this.base = base;
+        this.baseShown = new ItemStack[base.size()];
+        this.baseVersions = new int[base.size()];
+        this.baseChanges();
+        Menus manager = base.manager();
+        if (manager != null) manager.registerView(this);
+    }
+
+    @Contract("_ -> new")
+    public static @NotNull MenuView of(@NotNull MenuImpl base) {
+        return new MenuView(Objects.requireNonNull(base));
+    }
+
+    /**
+     * @return the menu holding the slots shared by every view
+     */
+    public @NotNull MenuImpl base() {
+        return base;
+    }
+
+    /**
+     * Gets the view of the player, creating it if they don't have one yet.
+     * Items set on the view only show up for that player.
+     * @param player the player
+     * @return the view
+     */
+    public @NotNull MenuImpl view(@NotNull HumanEntity player) {
+        final UUID id = player.getUniqueId();
+        MenuImpl view = views.get(id);
+        if (view != null) return view;
+
+        view = base.createView(menu -> {
+            Contents layer = new Contents(menu);
+            layer.setUnderlay(base);
+            layers.put(id, layer);
+            return layer;
+        });
+        views.put(id, view);
+        return view;
+    }
+
+    public @Nullable MenuImpl getView(@NotNull UUID player) {
+        return views.get(player);
+    }
+
+    public @NotNull @Unmodifiable Collection<MenuImpl> views() {
+        return Collections.unmodifiableCollection(views.values());
+    }
+
+    public void open(@NotNull HumanEntity player) {
+        view(player).open(player);
+    }
+
+    /**
+     * Pushes the slots of the base that changed since the last update to every view, then updates the views.
+     * Each view only compares the changed slots it doesn't override.
+     */
+    public void update() {
+        final long changed = baseChanges();
+        for (Contents layer : layers.values()) layer.markStale(changed);
+        for (MenuImpl view : views.values()) view.update();
+    }
+
+    /**
+     * Forgets the view of the player and releases it.
+     * @param player the player
+     */
+    public void removeView(@NotNull UUID player) {
+        MenuImpl view = views.remove(player);
+        layers.remove(player);
+        if (view != null) view.discard();
+    }
+
+    /**
+     * Releases every view and the base.
+     */
+    public void discard() {
+        Menus manager = base.manager();
+        if (manager != null) manager.unregisterView(this);
+        views.values().forEach(MenuImpl::discard);
+        views.clear();
+        layers.clear();
+        base.discard();
+    }
+
+    private long baseChanges() {
+        long changed = 0;
+        final int length = Math.min(baseShown.length, Long.SIZE);
+        for (int slot = 0; slot < length; slot++) {
+            MenuItem item = base.itemAt(slot);
+            final ItemStack stack;
+            final int version;
+            if (item == null || (item.getVisiblity() != null && !item.getVisiblity().test(base))) {
+                stack = null;
+                version = 0;
+            } else {
+                stack = item.getItemStack();
+                version = item.getVersion();
+            }
+            if (baseShown[slot] == stack && baseVersions[slot] == version) continue;
+            baseShown[slot] = stack;
+            baseVersions[slot] = version;
+            changed |= 1L << slot;
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,64 @@
+package me.flame.menus.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in nanoseconds with fixed power of two buckets.
+ * <p>
+ * Bucket {@code i} counts values below {@code 2^i}, so recording is a leading zero count and an atomic increment.
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class Histogram {
+    public static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder(), sum = new LongAdder();
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+    }
+
+    public @NotNull Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) copy[bucket] = buckets.get(bucket);
+        return new Snapshot(count.sum(), sum.sum(), copy);
+    }
+
+    static int bucketOf(long value) {
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(value), BUCKETS - 1);
+    }
+
+    /**
+     * A copy of the histogram at one point in time.
+     * @param count the amount of recorded values
+     * @param sum the sum of the recorded values
+     * @param buckets the amount of values per bucket, bucket {@code i} holds values below {@code 2^i}
+     */
+    public record Snapshot(long count, long sum, long[] buckets) {
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * The upper bound of the bucket the percentile falls in.
+         * @param percentile the percentile, between 0 and 1
+         * @return the upper bound in nanoseconds
+         */
+        public long percentile(double percentile) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(percentile * count), seen = 0;
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                seen += buckets[bucket];
+                if (seen >= rank) return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package me.flame.menus.metrics;
+
+import com.google.common.collect.MapMaker;
+
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.Menu;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and counters of the menus of a {@link me.flame.menus.menu.Menus}.
+ * <p>
+ * Menus are grouped by the name given through {@link #setName(Menu, String)}, or else by their inventory type and title,
+ * items by their unique id. Past {@link #getMaxNames()} groups, menus of new groups are recorded under {@link #OTHER}.
+ * Give menus with per-player or changing titles a name, so they share one group.
+ * Recording is disabled by default, while disabled every call site only reads {@link #isEnabled()}.
+ * <pre>{@code
+ *      menus.getMetrics().setEnabled(true);
+ *      ...
+ *      for (var menu : menus.getMetrics().snapshot().menus()) exporter.export(menu.name(), menu.click());
+ * }</pre>
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class MenuMetrics {
+    /**
+     * The group of menus recorded after {@link #getMaxNames()} groups exist.
+     */
+    public static final String OTHER = "other";
+    public static final int DEFAULT_MAX_NAMES = 256;
+
+    private volatile boolean enabled;
+    private volatile int maxNames = DEFAULT_MAX_NAMES;
+
+    private final ConcurrentMap<String, MenuStats> byName = new ConcurrentHashMap<>(16);
+    private final ConcurrentMap<Menu, String> names = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * The group of every menu recorded so far, looked up again once the title of the menu changed.
+     */
+    private final ConcurrentMap<Menu, Binding> byMenu = new MapMaker().weakKeys().makeMap();
+    private final ConcurrentMap<MenuItem, ItemStats> byItem = new MapMaker().weakKeys().makeMap();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records the menu under the name instead of its inventory type and title.
+     * @param menu the menu
+     * @param name the name, menus with the same name are recorded together
+     */
+    public void setName(@NotNull Menu menu, @NotNull String name) {
+        names.put(menu, Objects.requireNonNull(name));
+        byMenu.remove(menu);
+    }
+
+    public int getMaxNames() {
+        return maxNames;
+    }
+
+    /**
+     * Changes how many groups of menus are recorded separately, applies to groups created afterwards.
+     * @param maxNames the amount of groups
+     */
+    public void setMaxNames(int maxNames) {
+        if (maxNames < 1) throw new IllegalArgumentException("At least one group of menus must be recorded\nMax names: " + maxNames + "\nFix: Use a value above 0");
+        this.maxNames = maxNames;
+    }
+
+    /**
+     * Time spent handling a click in the menu listener.
+     */
+    public void recordClick(@NotNull Menu menu, long nanos) {
+        stats(menu).click.record(nanos);
+    }
+
+    /**
+     * Time spent in the click action of an item.
+     */
+    public void recordHandler(@NotNull Menu menu, @NotNull MenuItem item, long nanos) {
+        stats(menu).handler.record(nanos);
+        byItem.computeIfAbsent(item, ItemStats::new).handler.record(nanos);
+    }
+
+    /**
+     * Time spent dispatching an event to the actions of the menu.
+     */
+    public void recordDispatch(@NotNull Menu menu, long nanos) {
+        stats(menu).dispatch.record(nanos);
+    }
+
+    /**
+     * Time spent writing the contents into the inventory, and how many slots were written.
+     */
+    public void recordRender(@NotNull Menu menu, long nanos, int slotsWritten) {
+        MenuStats stats = stats(menu);
+        stats.render.record(nanos);
+        stats.updates.increment();
+        stats.slotWrites.add(slotsWritten);
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public void reset() {
+        byName.clear();
+        byMenu.clear();
+        byItem.clear();
+    }
+
+    public @NotNull Snapshot snapshot() {
+        List<MenuSnapshot> menus = new ArrayList<>(byName.size());
+        for (MenuStats stats : byName.values()) {
+            menus.add(new MenuSnapshot(stats.name, stats.click.snapshot(), stats.handler.snapshot(), stats.dispatch.snapshot(),
+                    stats.render.snapshot(), stats.updates.sum(), stats.slotWrites.sum()));
+        }
+        List<ItemSnapshot> items = new ArrayList<>(byItem.size());
+        for (ItemStats stats : byItem.values()) items.add(new ItemSnapshot(stats.uniqueId, stats.handler.snapshot()));
+        return new Snapshot(List.copyOf(menus), List.copyOf(items));
+    }
+
+    private MenuStats stats(Menu menu) {
+        final Component title = menu.title();
+        Binding binding = byMenu.get(menu);
+        if (binding != null && binding.title() == title) return binding.stats();
+
+        String name = names.get(menu);
+        if (name == null) name = nameOf(menu);
+        MenuStats stats = byName.get(name);
+        if (stats == null) stats = byName.computeIfAbsent(byName.size() < maxNames ? name : OTHER, MenuStats::new);
+        byMenu.put(menu, new Binding(title, stats));
+        return stats;
+    }
+
+    private static String nameOf(Menu menu) {
+        StringBuilder name = new StringBuilder(32).append(menu.getType().inventoryType().name()).append(':');
+        flatten(menu.title(), name);
+        return name.toString();
+    }
+
+    private static void flatten(Component component, StringBuilder builder) {
+        if (component == null) return;
+        if (component instanceof TextComponent text) builder.append(text.content());
+        for (Component child : component.children()) flatten(child, builder);
+    }
+
+    private static final class MenuStats {
+        final String name;
+        final Histogram click = new Histogram(), handler = new Histogram(), dispatch = new Histogram(), render = new Histogram();
+        final LongAdder updates = new LongAdder(), slotWrites = new LongAdder();
+
+        MenuStats(String name) {
+            this.name = name;
+        }
+    }
+
+    private record Binding(Component title, MenuStats stats) {}
+
+    private static final class ItemStats {
+        final UUID uniqueId;
+        final Histogram handler = new Histogram();
+
+        ItemStats(MenuItem item) {
+            this.uniqueId = item.getUniqueId();
+        }
+    }
+
+    /**
+     * @param menus the menus grouped by name, or by type and title
+     * @param items the items whose click action ran
+     */
+    public record Snapshot(@Unmodifiable List<MenuSnapshot> menus, @Unmodifiable List<ItemSnapshot> items) {}
+
+    /**
+     * @param name the name of the menus, or their inventory type and flattened title
+     * @param click time in the click listener
+     * @param handler time in item click actions
+     * @param dispatch time dispatching to the menu actions
+     * @param render time writing contents into the inventory
+     * @param updates the amount of updates
+     * @param slotWrites the amount of slots written by those updates
+     */
+    public record MenuSnapshot(String name, Histogram.Snapshot click, Histogram.Snapshot handler, Histogram.Snapshot dispatch,
+                               Histogram.Snapshot render, long updates, long slotWrites) {}
+
+    public record ItemSnapshot(UUID uniqueId, Histogram.Snapshot handler) {}
+}
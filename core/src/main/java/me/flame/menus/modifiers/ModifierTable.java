@@ -0,0 +1,123 @@
+package me.flame.menus.modifiers;
+
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryType;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumSet;
+
+/**
+ * The modifiers of a menu compiled into a table of denied clicks and drags.
+ * <p>
+ * Every inventory action gets one entry per combination of
+ * "the clicked inventory has the type of the top inventory" and "the top inventory is a player inventory",
+ * so authorizing a click is a single array lookup.
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class ModifierTable {
+    private static final EnumSet<InventoryAction> TAKE = EnumSet.of(
+            InventoryAction.PICKUP_ONE, InventoryAction.PICKUP_SOME, InventoryAction.PICKUP_HALF, InventoryAction.PICKUP_ALL,
+            InventoryAction.COLLECT_TO_CURSOR, InventoryAction.HOTBAR_SWAP, InventoryAction.MOVE_TO_OTHER_INVENTORY
+    );
+
+    private static final EnumSet<InventoryAction> PLACE = EnumSet.of(InventoryAction.PLACE_ONE, InventoryAction.PLACE_SOME, InventoryAction.PLACE_ALL);
+    private static final EnumSet<InventoryAction> SWAP = EnumSet.of(InventoryAction.HOTBAR_SWAP, InventoryAction.SWAP_WITH_CURSOR, InventoryAction.HOTBAR_MOVE_AND_READD);
+    private static final EnumSet<InventoryAction> DROP = EnumSet.of(InventoryAction.DROP_ONE_SLOT, InventoryAction.DROP_ALL_SLOT, InventoryAction.DROP_ONE_CURSOR, InventoryAction.DROP_ALL_CURSOR);
+
+    private static final InventoryAction[] ACTIONS = InventoryAction.values();
+
+    private final boolean[] deniedClicks;
+    private final boolean denyAllDrags, denyMenuDrags;
+
+    private ModifierTable(@NotNull EnumSet<Modifier> modifiers) {
+        final boolean all = modifiers.size() == Modifier.ALL.size(),
+                placeable = modifiers.contains(Modifier.DISABLE_ITEM_ADD),
+                removable = modifiers.contains(Modifier.DISABLE_ITEM_REMOVAL),
+                swappable = modifiers.contains(Modifier.DISABLE_ITEM_SWAP),
+                cloneable = modifiers.contains(Modifier.DISABLE_ITEM_CLONE);
+
+        this.deniedClicks = new boolean[ACTIONS.length << 2];
+        for (InventoryAction action : ACTIONS) {
+            for (int variant = 0; variant < 4; variant++) {
+                boolean sameType = (variant & 1) != 0, topIsPlayer = (variant & 2) != 0;
+
+                // only equality and PLAYER are ever checked, so any two other types stand in for the real ones
+                InventoryType type = topIsPlayer ? InventoryType.PLAYER : InventoryType.CHEST;
+                InventoryType ciType = sameType ? type : (topIsPlayer ? InventoryType.CHEST : InventoryType.HOPPER);
+
+                deniedClicks[index(action.ordinal(), sameType, topIsPlayer)] = all ||
+                        (!placeable && isPlaceItemEvent(action, ciType, type)) ||
+                        (removable && (isTakeItemEvent(action, type) || isDropItemEvent(action, type))) ||
+                        (!swappable && isSwapItemEvent(action, type)) ||
+                        (!cloneable && isOtherEvent(action, type));
+            }
+        }
+
+        this.denyAllDrags = all;
+        this.denyMenuDrags = !placeable;
+    }
+
+    /**
+     * Compiles the modifiers into a table, later changes to the set aren't reflected.
+     * @param modifiers the modifiers of the menu
+     * @return the table
+     */
+    @Contract("_ -> new")
+    public static @NotNull ModifierTable compile(@NotNull EnumSet<Modifier> modifiers) {
+        return new ModifierTable(modifiers);
+    }
+
+    /**
+     * Checks whether a click in the menu should be denied.
+     * @param action the action of the click
+     * @param clickedType the type of the clicked inventory
+     * @param topType the type of the top inventory
+     * @return whether the click is denied
+     */
+    public boolean isClickDenied(@NotNull InventoryAction action, @NotNull InventoryType clickedType, @NotNull InventoryType topType) {
+        return deniedClicks[index(action.ordinal(), clickedType == topType, topType == InventoryType.PLAYER)];
+    }
+
+    /**
+     * Checks whether a drag should be denied.
+     * @param size the size of the menu
+     * @param rawSlots the raw slots the drag covers
+     * @return whether the drag is denied
+     */
+    public boolean isDragDenied(int size, @NotNull Iterable<Integer> rawSlots) {
+        return denyAllDrags || (denyMenuDrags && isDraggingOnGui(size, rawSlots));
+    }
+
+    private static int index(int action, boolean sameType, boolean topIsPlayer) {
+        return (action << 2) | (topIsPlayer ? 2 : 0) | (sameType ? 1 : 0);
+    }
+
+    private static boolean isTakeItemEvent(InventoryAction action, InventoryType type) {
+        if (type == InventoryType.PLAYER) return false;
+        return action == InventoryAction.MOVE_TO_OTHER_INVENTORY || TAKE.contains(action);
+    }
+
+    private static boolean isPlaceItemEvent(InventoryAction action, InventoryType ciType, InventoryType type) {
+        if (action == InventoryAction.MOVE_TO_OTHER_INVENTORY && type != ciType) return true;
+        return (type != InventoryType.PLAYER) || PLACE.contains(action);
+    }
+
+    private static boolean isSwapItemEvent(InventoryAction action, InventoryType type) {
+        return (type != InventoryType.PLAYER) && SWAP.contains(action);
+    }
+
+    private static boolean isDropItemEvent(InventoryAction action, InventoryType type) {
+        return (type != InventoryType.PLAYER) && DROP.contains(action);
+    }
+
+    private static boolean isOtherEvent(InventoryAction action, InventoryType type) {
+        return (action == InventoryAction.CLONE_STACK || action == InventoryAction.UNKNOWN) && (type != InventoryType.PLAYER);
+    }
+
+    private static boolean isDraggingOnGui(int size, @NotNull Iterable<Integer> rawSlots) {
+        for (int slot : rawSlots) if (slot < size) return true;
+        return false;
+    }
+}
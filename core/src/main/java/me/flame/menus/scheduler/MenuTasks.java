@@ -0,0 +1,199 @@
+package me.flame.menus.scheduler;
+
+import com.google.common.collect.MapMaker;
+
+import me.flame.menus.menu.Menu;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * The periodic tasks of menus, such as the ones started by {@link Menu#updatePer(long, long)}.
+ * <p>
+ * Tasks of a menu only run while the menu has viewers, they are paused when the last viewer closes it
+ * and resumed when it is opened again. {@link Menu#discard()} releases them for good,
+ * menus that aren't referenced anymore lose their tasks on their own since tasks only hold their menu weakly.
+ * <p>
+ * Tasks must be scheduled, paused and resumed from the server thread.
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class MenuTasks {
+    private final Plugin plugin;
+    private final Map<Menu, List<MenuTask>> tasks = new MapMaker().weakKeys().makeMap();
+
+    public MenuTasks(@NotNull Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Registers a periodic task of the menu, it starts right away if the menu has viewers.
+     * <p>
+     * The task is kept as long as the menu, so a task capturing the menu keeps it until {@link #release(Menu)},
+     * use {@link #schedule(Menu, String, long, long, Consumer)} to receive the menu instead.
+     * @param menu the menu the task belongs to
+     * @param name the name of the task, shown in {@link #activeTasks()}
+     * @param delay the delay in ticks before the first run
+     * @param period the ticks between runs
+     * @param task the task
+     * @return the task
+     */
+    public @NotNull MenuTask schedule(@NotNull Menu menu, @NotNull String name, long delay, long period, @NotNull Runnable task) {
+        return schedule(menu, name, delay, period, target -> task.run());
+    }
+
+    /**
+     * Registers a periodic task of the menu, it starts right away if the menu has viewers.
+     * @param menu the menu the task belongs to
+     * @param name the name of the task, shown in {@link #activeTasks()}
+     * @param delay the delay in ticks before the first run
+     * @param period the ticks between runs
+     * @param task the task, given the menu on every run
+     * @return the task
+     */
+    public @NotNull MenuTask schedule(@NotNull Menu menu, @NotNull String name, long delay, long period, @NotNull Consumer<Menu> task) {
+        if (period <= 0) throw new IllegalArgumentException("Period must be at least one tick\nPeriod: " + period + "\nFix: Use a period above 0");
+        MenuTask menuTask = new MenuTask(menu, name, Math.max(delay, 0), period, task);
+        tasks.computeIfAbsent(menu, key -> new ArrayList<>(2)).add(menuTask);
+        if (!menu.getViewers().isEmpty()) menuTask.start(plugin, menuTask.delay);
+        return menuTask;
+    }
+
+    /**
+     * Pauses the tasks of the menu, called when nobody views it anymore.
+     * @param menu the menu
+     */
+    public void pause(@NotNull Menu menu) {
+        List<MenuTask> registered = tasks.get(menu);
+        if (registered != null) for (MenuTask task : registered) task.stop();
+    }
+
+    /**
+     * Resumes the paused tasks of the menu, called when it is opened.
+     * @param menu the menu
+     */
+    public void resume(@NotNull Menu menu) {
+        List<MenuTask> registered = tasks.get(menu);
+        if (registered != null) for (MenuTask task : registered) if (task.handle == null) task.start(plugin, task.period);
+    }
+
+    /**
+     * Cancels and forgets every task of the menu.
+     * @param menu the menu
+     */
+    public void release(@NotNull Menu menu) {
+        List<MenuTask> registered = tasks.remove(menu);
+        if (registered != null) for (MenuTask task : registered) task.stop();
+    }
+
+    /**
+     * Cancels and forgets a single task.
+     * @param task the task
+     */
+    public void cancel(@NotNull MenuTask task) {
+        task.stop();
+        Menu menu = task.menu();
+        List<MenuTask> registered = menu == null ? null : tasks.get(menu);
+        if (registered == null) return;
+        registered.remove(task);
+        if (registered.isEmpty()) tasks.remove(menu);
+    }
+
+    /**
+     * @return every registered task with its cost, including paused ones
+     */
+    public @NotNull @Unmodifiable List<TaskSnapshot> activeTasks() {
+        List<TaskSnapshot> snapshots = new ArrayList<>(tasks.size());
+        for (List<MenuTask> registered : tasks.values()) {
+            for (MenuTask task : registered) snapshots.add(task.snapshot());
+        }
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * A periodic task of a menu.
+     */
+    public static final class MenuTask {
+        private final WeakReference<Menu> menu;
+        private final String name;
+        private final long delay, period;
+        private final Consumer<Menu> task;
+
+        private BukkitTask handle;
+        private long runs, nanos;
+
+        private MenuTask(Menu menu, String name, long delay, long period, Consumer<Menu> task) {
+            this.menu = new WeakReference<>(menu);
+            this.name = name;
+            this.delay = delay;
+            this.period = period;
+            this.task = task;
+        }
+
+        private void start(Plugin plugin, long delay) {
+            this.handle = Bukkit.getScheduler().runTaskTimer(plugin, this::run, delay, period);
+        }
+
+        private void stop() {
+            if (handle == null) return;
+            handle.cancel();
+            handle = null;
+        }
+
+        private void run() {
+            final Menu target = menu.get();
+            if (target == null) {
+                stop();
+                return;
+            }
+            final long start = System.nanoTime();
+            try {
+                task.accept(target);
+            } finally {
+                nanos += System.nanoTime() - start;
+                runs++;
+            }
+        }
+
+        /**
+         * @return the menu, or null if it was garbage collected
+         */
+        public @Nullable Menu menu() {
+            return menu.get();
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public boolean isPaused() {
+            return handle == null;
+        }
+
+        public @NotNull TaskSnapshot snapshot() {
+            return new TaskSnapshot(menu.get(), name, period, handle == null, runs, nanos);
+        }
+    }
+
+    /**
+     * @param menu the menu of the task, or null if it was garbage collected
+     * @param name the name of the task
+     * @param period the ticks between runs
+     * @param paused whether the task is paused
+     * @param runs the amount of runs so far
+     * @param nanos the total time spent running the task
+     */
+    public record TaskSnapshot(Menu menu, String name, long period, boolean paused, long runs, long nanos) {
+        public double averageNanos() {
+            return runs == 0 ? 0 : (double) nanos / runs;
+        }
+    }
+}
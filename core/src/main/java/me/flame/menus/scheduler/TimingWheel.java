@@ -0,0 +1,130 @@
+package me.flame.menus.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * A hashed timing wheel running repeating tasks at their own interval in ticks.
+ * <p>
+ * Every timer lives in the bucket of the tick it is due on, so a tick only looks at one bucket
+ * no matter how many timers exist. The wheel is driven by a single scheduler task,
+ * which only runs while there are timers.
+ * <p>
+ * Timers must be scheduled and cancelled from the server thread.
+ * @since 3.0.0
+ */
+@SuppressWarnings("unused")
+public final class TimingWheel {
+    private static final int WHEEL_SIZE = 512, MASK = WHEEL_SIZE - 1;
+
+    private final Plugin plugin;
+    private final List<Timer>[] buckets;
+    private final List<Timer> due = new ArrayList<>(8);
+
+    private long tick;
+    private int timers;
+    private BukkitTask driver;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(@NotNull Plugin plugin) {
+        this.plugin = plugin;
+        this.buckets = new List[WHEEL_SIZE];
+        for (int bucket = 0; bucket < WHEEL_SIZE; bucket++) buckets[bucket] = new ArrayList<>(2);
+    }
+
+    /**
+     * Runs the task every interval, starting one interval from now.
+     * @param intervalTicks the interval in ticks
+     * @param task the task
+     * @return the timer, cancel it to stop the task
+     */
+    @Contract("_, _ -> new")
+    public @NotNull Timer schedule(long intervalTicks, @NotNull Runnable task) {
+        if (intervalTicks <= 0) throw new IllegalArgumentException("Interval must be at least one tick\nInterval: " + intervalTicks + "\nFix: Use an interval above 0");
+        Timer timer = new Timer(intervalTicks, task);
+        insert(timer, tick + intervalTicks);
+        if (timers++ == 0) driver = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        return timer;
+    }
+
+    public int size() {
+        return timers;
+    }
+
+    private void insert(Timer timer, long dueTick) {
+        timer.dueTick = dueTick;
+        buckets[(int) (dueTick & MASK)].add(timer);
+    }
+
+    private void tick() {
+        final long now = ++tick;
+        final List<Timer> bucket = buckets[(int) (now & MASK)];
+        if (bucket.isEmpty()) return;
+
+        // timers further than one revolution away share the bucket and stay in it
+        int kept = 0;
+        final int length = bucket.size();
+        for (int index = 0; index < length; index++) {
+            Timer timer = bucket.get(index);
+            if (timer.cancelled) timers--;
+            else if (timer.dueTick > now) bucket.set(kept++, timer);
+            else due.add(timer);
+        }
+        bucket.subList(kept, length).clear();
+
+        for (Timer timer : due) {
+            // a task that ran before in this tick may have cancelled the timer
+            if (timer.cancelled) {
+                timers--;
+                continue;
+            }
+            try {
+                timer.task.run();
+            } catch (Throwable throwable) {
+                plugin.getLogger().log(Level.SEVERE, "Timer of a menu threw an exception", throwable);
+            }
+            if (timer.cancelled) timers--;
+            else insert(timer, now + timer.interval);
+        }
+        due.clear();
+
+        if (timers == 0 && driver != null) {
+            driver.cancel();
+            driver = null;
+        }
+    }
+
+    /**
+     * A repeating task of the wheel.
+     */
+    public static final class Timer {
+        private final long interval;
+        private final Runnable task;
+        private long dueTick;
+        private boolean cancelled;
+
+        private Timer(long interval, Runnable task) {
+            this.interval = interval;
+            this.task = task;
+        }
+
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long interval() {
+            return interval;
+        }
+    }
+}